@@ -0,0 +1,50 @@
+-- pgbench script that races seat reservations and cancellations against the confirmed_requests reconciler.
+-- Four in ten transactions reserve a seat and confirm a pending request. Four in ten cancel a confirmed request
+-- and release its seat. The rest run the reconciler's per-event lock and recount from ConfirmedRequestsReconciler.
+-- Setup for a published event 1 with 100 seats and 10000 pending requests:
+--   INSERT INTO users (name, email) SELECT 'user' || g, 'user' || g || '@example.com' FROM generate_series(1, 10000) g;
+--   UPDATE events SET participant_limit = 100, confirmed_requests = 0 WHERE id = 1;
+--   INSERT INTO requests (created_on, event_id, requester_id, status)
+--   SELECT now(), 1, id, 'PENDING' FROM users WHERE email LIKE 'user%';
+-- Usage: pgbench -h localhost -p 6542 -U ewmuser -d ewmdb -n -c 64 -j 8 -T 60 \
+--            -D event_id=1 -D first_id=<min request id> -D last_id=<max request id> \
+--            -f confirmed-requests-reconcile-stress.sql
+-- Check, after the run:
+--   SELECT e.confirmed_requests, e.participant_limit,
+--          (SELECT COUNT(*) FROM requests r WHERE r.event_id = e.id AND r.status = 'CONFIRMED') AS actual
+--   FROM events e WHERE e.id = 1;
+-- confirmed_requests must equal actual and never exceed participant_limit.
+
+\set r random(:first_id, :last_id)
+\set op random(1, 10)
+\if :op <= 4
+BEGIN;
+SELECT id FROM requests WHERE id = :r FOR UPDATE;
+WITH reserved AS (
+    UPDATE events SET confirmed_requests = confirmed_requests + 1
+    WHERE id = :event_id AND confirmed_requests + 1 <= participant_limit
+      AND EXISTS (SELECT 1 FROM requests WHERE id = :r AND event_id = :event_id AND status = 'PENDING')
+    RETURNING id
+)
+UPDATE requests SET status = 'CONFIRMED'
+WHERE id = :r AND EXISTS (SELECT 1 FROM reserved);
+END;
+\elif :op <= 8
+BEGIN;
+WITH canceled AS (
+    UPDATE requests SET status = 'PENDING'
+    WHERE id = :r AND event_id = :event_id AND status = 'CONFIRMED'
+    RETURNING id
+)
+UPDATE events SET confirmed_requests = confirmed_requests - 1
+WHERE id = :event_id AND EXISTS (SELECT 1 FROM canceled);
+END;
+\else
+BEGIN;
+SELECT id FROM events WHERE id = :event_id FOR UPDATE;
+UPDATE events e
+SET confirmed_requests = (SELECT COUNT(*) FROM requests r WHERE r.event_id = e.id AND r.status = 'CONFIRMED')
+WHERE e.id = :event_id
+  AND e.confirmed_requests <> (SELECT COUNT(*) FROM requests r WHERE r.event_id = e.id AND r.status = 'CONFIRMED');
+END;
+\endif
@@ -0,0 +1,62 @@
+-- Loads a reproducible set of published events and compares LIKE and full-text search.
+-- Usage: psql -h localhost -p 6542 -U ewmuser -d ewmdb -v events=1000000 -f events-search-benchmark.sql
+-- Run against an empty database: the script inserts its own user, category and location.
+
+\set ON_ERROR_STOP on
+\if :{?events}
+\else
+\set events 1000000
+\endif
+
+SELECT setseed(0.42);
+
+INSERT INTO users (name, email) VALUES ('benchmark', 'benchmark@example.com');
+INSERT INTO categories (name) VALUES ('benchmark');
+INSERT INTO locations (lat, lon) VALUES (55.75, 37.62);
+
+CREATE TEMP TABLE words AS
+SELECT unnest(ARRAY['concert', 'jazz', 'rock', 'festival', 'exhibition', 'lecture', 'theatre', 'movie',
+                    'workshop', 'marathon', 'party', 'quiz', 'standup', 'opera', 'ballet', 'picnic']) AS word;
+
+INSERT INTO events (annotation, category_id, created_on, description, event_date, initiator_id, location_id,
+                    paid, participant_limit, published_on, request_moderation, state, title)
+SELECT (SELECT string_agg(word, ' ') FROM (SELECT word FROM words ORDER BY random() + g * 0 LIMIT 8) a),
+       (SELECT id FROM categories WHERE name = 'benchmark'),
+       now(),
+       repeat((SELECT string_agg(word, ' ') FROM (SELECT word FROM words ORDER BY random() + g * 0 LIMIT 12) d) || ' ', 20)
+           || md5(g::text),
+       now() + (random() * 365) * INTERVAL '1 day',
+       (SELECT id FROM users WHERE email = 'benchmark@example.com'),
+       (SELECT id FROM locations ORDER BY id LIMIT 1),
+       random() < 0.5,
+       0,
+       now(),
+       false,
+       'PUBLISHED',
+       'Benchmark event ' || g
+FROM generate_series(1, :events) g;
+
+ANALYZE events;
+
+\timing on
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id FROM events
+WHERE state = 'PUBLISHED'
+  AND (LOWER(annotation) LIKE '%opera%' OR LOWER(description) LIKE '%opera%')
+ORDER BY event_date, id
+LIMIT 10;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id FROM events
+WHERE state = 'PUBLISHED'
+  AND (to_tsvector('simple', annotation || ' ' || description) @@ plainto_tsquery('simple', 'opera'))
+ORDER BY event_date, id
+LIMIT 10;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id FROM events
+WHERE state = 'PUBLISHED'
+  AND (to_tsvector('simple', annotation || ' ' || description) @@ plainto_tsquery('simple', md5('4242')))
+ORDER BY ts_rank(to_tsvector('simple', annotation || ' ' || description), plainto_tsquery('simple', md5('4242'))) DESC, id
+LIMIT 10;
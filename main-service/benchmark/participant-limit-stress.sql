@@ -0,0 +1,10 @@
+-- pgbench script that races the conditional participant-limit update used by createRequest.
+-- Setup: pick a published event and reset it, e.g.
+--   UPDATE events SET participant_limit = 100, confirmed_requests = 0 WHERE id = 1;
+-- Usage: pgbench -h localhost -p 6542 -U ewmuser -d ewmdb -n -c 64 -j 8 -t 500 -D event_id=1 \
+--            -f participant-limit-stress.sql
+-- Check: SELECT confirmed_requests, participant_limit FROM events WHERE id = 1;
+-- confirmed_requests must end exactly at participant_limit, never above it.
+
+UPDATE events SET confirmed_requests = confirmed_requests + 1
+WHERE id = :event_id AND (participant_limit = 0 OR confirmed_requests + 1 <= participant_limit);
@@ -0,0 +1,42 @@
+// k6 load test for POST /users/{userId}/requests during a ticket drop.
+// Setup: a published event and a range of users, e.g.
+//   INSERT INTO users (name, email) SELECT 'load' || g, 'load' || g || '@example.com' FROM generate_series(1, 300000) g;
+// Usage: k6 run -e BASE_URL=http://localhost:8080 -e EVENT_ID=1 -e FIRST_USER_ID=<min id> -e USERS=300000 \
+//            -e RATE=5000 -e DURATION=60s request-intake.k6.js
+// Users are drawn at random, so some calls repeat an earlier (event, user) pair with the same Idempotency-Key
+// and exercise the replay path. The summary reports p50/p99 of http_req_duration.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const EVENT_ID = __ENV.EVENT_ID || '1';
+const FIRST_USER_ID = Number(__ENV.FIRST_USER_ID || 1);
+const USERS = Number(__ENV.USERS || 300000);
+
+export const options = {
+    scenarios: {
+        intake: {
+            executor: 'constant-arrival-rate',
+            rate: Number(__ENV.RATE || 5000),
+            timeUnit: '1s',
+            duration: __ENV.DURATION || '60s',
+            preAllocatedVUs: 500,
+            maxVUs: 3000,
+        },
+    },
+    summaryTrendStats: ['p(50)', 'p(99)', 'max'],
+    thresholds: {
+        'http_req_duration{name:createRequest}': ['p(99)<500'],
+    },
+};
+
+export default function () {
+    const userId = FIRST_USER_ID + Math.floor(Math.random() * USERS);
+    const res = http.post(`${BASE_URL}/users/${userId}/requests?eventId=${EVENT_ID}`, null, {
+        headers: { 'Idempotency-Key': `drop-${EVENT_ID}-${userId}` },
+        tags: { name: 'createRequest' },
+    });
+    check(res, {
+        'created or limit reached': (r) => r.status === 201 || r.status === 409,
+    });
+}
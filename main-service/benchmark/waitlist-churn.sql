@@ -0,0 +1,31 @@
+-- pgbench script for waitlist promotion under cancel/confirm churn.
+-- Each transaction cancels a random confirmed seat, promotes the head of the queue into it (the statement
+-- RequestStatusRepository.promoteNext runs) and puts the canceled requester back at the tail of the queue.
+-- Setup for a published event 1 with 1000 seats and 100000 queued requests:
+--   INSERT INTO users (name, email) SELECT 'user' || g, 'user' || g || '@example.com' FROM generate_series(1, 101000) g;
+--   UPDATE events SET waitlist = TRUE, participant_limit = 1000, confirmed_requests = 1000, queue_seq = 101000 WHERE id = 1;
+--   INSERT INTO requests (created_on, event_id, requester_id, status, queue_position)
+--   SELECT now(), 1, u.id, CASE WHEN u.rn <= 1000 THEN 'CONFIRMED' ELSE 'PENDING' END, u.rn
+--   FROM (SELECT id, row_number() OVER (ORDER BY id) AS rn FROM users WHERE email LIKE 'user%') u;
+-- Usage: pgbench -h localhost -p 6542 -U ewmuser -d ewmdb -n -c 32 -j 8 -T 60 \
+--            -D event_id=1 -D first_id=<min request id> -D last_id=<max request id> -f waitlist-churn.sql
+-- Check: SELECT status, COUNT(*) FROM requests WHERE event_id = 1 GROUP BY status; -- CONFIRMED stays at 1000
+
+\set r random(:first_id, :last_id)
+BEGIN;
+WITH canceled AS (
+    UPDATE requests SET status = 'CANCELED'
+    WHERE id = :r AND event_id = :event_id AND status = 'CONFIRMED'
+    RETURNING id
+)
+UPDATE requests SET status = 'CONFIRMED'
+WHERE id = (SELECT id FROM requests WHERE event_id = :event_id AND status = 'PENDING'
+              AND queue_position IS NOT NULL
+              AND EXISTS (SELECT 1 FROM events e WHERE e.id = :event_id
+                          AND e.participant_limit <> 0 AND e.confirmed_requests >= e.participant_limit)
+            ORDER BY queue_position LIMIT 1 FOR UPDATE SKIP LOCKED)
+  AND EXISTS (SELECT 1 FROM canceled);
+UPDATE events SET queue_seq = queue_seq + 1 WHERE id = :event_id;
+UPDATE requests SET status = 'PENDING', queue_position = (SELECT queue_seq FROM events WHERE id = :event_id)
+WHERE id = :r AND status = 'CANCELED';
+END;
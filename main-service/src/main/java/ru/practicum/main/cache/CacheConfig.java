@@ -0,0 +1,52 @@
+package ru.practicum.main.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@EnableCaching
+@Configuration
+public class CacheConfig {
+
+    public static final String CATEGORIES = "categories";
+    public static final String USER_SHORTS = "userShorts";
+    public static final String COMPILATIONS = "compilations";
+
+    @Value("${cache.categories.maximum-size:1000}")
+    private long categoriesMaximumSize;
+
+    @Value("${cache.user-shorts.maximum-size:10000}")
+    private long userShortsMaximumSize;
+
+    @Value("${cache.compilations.maximum-size:1000}")
+    private long compilationsMaximumSize;
+
+    @Value("${cache.compilations.expire-after-write-ms:600000}")
+    private long compilationsExpireAfterWriteMs;
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setAllowNullValues(false);
+        cacheManager.registerCustomCache(CATEGORIES, Caffeine.newBuilder()
+                .maximumSize(categoriesMaximumSize)
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(USER_SHORTS, Caffeine.newBuilder()
+                .maximumSize(userShortsMaximumSize)
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(COMPILATIONS, Caffeine.newBuilder()
+                .maximumSize(compilationsMaximumSize)
+                .expireAfterWrite(Duration.ofMillis(compilationsExpireAfterWriteMs))
+                .recordStats()
+                .build());
+        return cacheManager;
+    }
+}
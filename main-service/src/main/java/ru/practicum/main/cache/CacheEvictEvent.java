@@ -0,0 +1,12 @@
+package ru.practicum.main.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class CacheEvictEvent {
+
+    private final String cacheName;
+    private final Long key;
+}
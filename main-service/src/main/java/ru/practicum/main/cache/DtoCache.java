@@ -0,0 +1,61 @@
+package ru.practicum.main.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+@Component
+@RequiredArgsConstructor
+public class DtoCache {
+
+    private final CacheManager cacheManager;
+    private final AtomicLong generations = new AtomicLong();
+
+    @SuppressWarnings("unchecked")
+    public <T> Map<Long, T> getAll(String cacheName, Collection<Long> ids, Function<List<Long>, Map<Long, T>> loader) {
+        Cache cache = cacheOf(cacheName);
+        Map<Long, T> result = new HashMap<>();
+        for (Long id : ids) {
+            Cache.ValueWrapper cached = cache.get(id);
+            if (cached != null) {
+                result.put(id, (T) cached.get());
+            }
+        }
+        List<Long> misses = ids.stream()
+                .distinct()
+                .filter(id -> !result.containsKey(id))
+                .toList();
+        if (misses.isEmpty()) {
+            return result;
+        }
+        long generation = generations.get();
+        Map<Long, T> loaded = loader.apply(misses);
+        loaded.forEach(cache::putIfAbsent);
+        if (generations.get() != generation) {
+            loaded.keySet().forEach(cache::evict);
+        }
+        result.putAll(loaded);
+        return result;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onEvict(CacheEvictEvent evict) {
+        generations.incrementAndGet();
+        cacheOf(evict.getCacheName()).evict(evict.getKey());
+    }
+
+    private Cache cacheOf(String cacheName) {
+        return Objects.requireNonNull(cacheManager.getCache(cacheName));
+    }
+}
@@ -5,6 +5,7 @@ import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.main.category.dto.CategoryDto;
 import ru.practicum.main.category.service.CategoryService;
 
@@ -20,12 +21,20 @@ public class PublicCategoryController {
     @GetMapping
     public List<CategoryDto> getCategories(
             @RequestParam(defaultValue = "0") @PositiveOrZero int from,
-            @RequestParam(defaultValue = "10") @Positive int size) {
+            @RequestParam(defaultValue = "10") @Positive int size,
+            WebRequest webRequest) {
+        if (webRequest.checkNotModified(categoryService.getCategoriesTag(from, size))) {
+            return null;
+        }
         return categoryService.getCategories(from, size);
     }
 
     @GetMapping("/{catId}")
-    public CategoryDto getCategory(@PathVariable Long catId) {
+    public CategoryDto getCategory(@PathVariable Long catId, WebRequest webRequest) {
+        String tag = categoryService.getCategoryTag(catId);
+        if (tag != null && webRequest.checkNotModified(tag)) {
+            return null;
+        }
         return categoryService.getCategory(catId);
     }
 }
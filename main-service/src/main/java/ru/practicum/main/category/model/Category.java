@@ -2,12 +2,14 @@ package ru.practicum.main.category.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 
 @Getter
 @Setter
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@BatchSize(size = 50)
 @Entity
 @Table(name = "categories")
 public class Category {
@@ -19,4 +21,8 @@ public class Category {
     @Column(name = "name", nullable = false, unique = true, length = 50)
     private String name;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
 }
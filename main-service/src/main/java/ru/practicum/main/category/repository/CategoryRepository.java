@@ -1,12 +1,24 @@
 package ru.practicum.main.category.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.main.category.model.Category;
+import ru.practicum.main.etag.EntityVersion;
+
+import java.util.List;
+import java.util.Optional;
 
 public interface CategoryRepository extends JpaRepository<Category, Long> {
     boolean existsByName(String name);
 
-    Page<Category> findAll(Pageable pageable);
+    Slice<Category> findAllBy(Pageable pageable);
+
+    @Query("SELECT new ru.practicum.main.etag.EntityVersion(c.id, c.version) FROM Category c ORDER BY c.id")
+    List<EntityVersion> findVersions(Pageable pageable);
+
+    @Query("SELECT c.version FROM Category c WHERE c.id = :catId")
+    Optional<Long> findVersion(@Param("catId") Long catId);
 }
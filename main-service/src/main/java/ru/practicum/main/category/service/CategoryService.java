@@ -3,7 +3,9 @@ package ru.practicum.main.category.service;
 import ru.practicum.main.category.dto.CategoryDto;
 import ru.practicum.main.category.dto.NewCategoryDto;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface CategoryService {
     CategoryDto createCategory(NewCategoryDto dto);
@@ -15,4 +17,10 @@ public interface CategoryService {
     List<CategoryDto> getCategories(int from, int size);
 
     CategoryDto getCategory(Long catId);
+
+    Map<Long, CategoryDto> getCategories(Collection<Long> catIds);
+
+    String getCategoriesTag(int from, int size);
+
+    String getCategoryTag(Long catId);
 }
@@ -2,20 +2,29 @@ package ru.practicum.main.category.service;
 
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.main.cache.CacheConfig;
+import ru.practicum.main.cache.CacheEvictEvent;
+import ru.practicum.main.cache.DtoCache;
 import ru.practicum.main.category.dto.CategoryDto;
 import ru.practicum.main.category.dto.NewCategoryDto;
 import ru.practicum.main.category.mapper.CategoryMapper;
 import ru.practicum.main.category.model.Category;
 import ru.practicum.main.category.repository.CategoryRepository;
+import ru.practicum.main.etag.ETags;
 import ru.practicum.main.event.repository.EventRepository;
 import ru.practicum.main.exception.ConflictException;
 import ru.practicum.main.exception.NotFoundException;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,6 +35,8 @@ public class CategoryServiceImpl implements CategoryService {
     private final CategoryRepository categoryRepository;
     private final EventRepository eventRepository;
     private final CategoryMapper categoryMapper;
+    private final DtoCache dtoCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(rollbackFor = {ConflictException.class})
     @Override
@@ -46,6 +57,7 @@ public class CategoryServiceImpl implements CategoryService {
             throw new ConflictException("Category name must be unique");
         }
         category.setName(dto.getName());
+        eventPublisher.publishEvent(new CacheEvictEvent(CacheConfig.CATEGORIES, catId));
         return categoryMapper.toCategoryDto(categoryRepository.save(category));
     }
 
@@ -58,17 +70,19 @@ public class CategoryServiceImpl implements CategoryService {
             throw new ConflictException("Category is not empty");
         }
         categoryRepository.deleteById(catId);
+        eventPublisher.publishEvent(new CacheEvictEvent(CacheConfig.CATEGORIES, catId));
     }
 
     @Transactional(readOnly = true)
     @Override
     public List<CategoryDto> getCategories(int from, int size) {
-        return categoryRepository.findAll(PageRequest.of(from / size, size, Sort.by("id")))
+        return categoryRepository.findAllBy(PageRequest.of(from / size, size, Sort.by("id")))
                 .stream()
                 .map(categoryMapper::toCategoryDto)
                 .collect(Collectors.toList());
     }
 
+    @Cacheable(cacheNames = CacheConfig.CATEGORIES, key = "#catId")
     @Transactional(readOnly = true)
     @Override
     public CategoryDto getCategory(Long catId) {
@@ -76,4 +90,27 @@ public class CategoryServiceImpl implements CategoryService {
                 .orElseThrow(() -> new NotFoundException("Category not found"));
         return categoryMapper.toCategoryDto(category);
     }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Map<Long, CategoryDto> getCategories(Collection<Long> catIds) {
+        return dtoCache.getAll(CacheConfig.CATEGORIES, catIds, misses -> categoryRepository.findAllById(misses)
+                .stream()
+                .map(categoryMapper::toCategoryDto)
+                .collect(Collectors.toMap(CategoryDto::getId, Function.identity())));
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public String getCategoriesTag(int from, int size) {
+        return ETags.of("categories", categoryRepository.findVersions(PageRequest.of(from / size, size)));
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public String getCategoryTag(Long catId) {
+        return categoryRepository.findVersion(catId)
+                .map(version -> ETags.of("category-" + catId, List.of(version)))
+                .orElse(null);
+    }
 }
@@ -1,19 +1,78 @@
 package ru.practicum.main.client;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import ru.practicum.stats.client.AsyncHitSettings;
+import ru.practicum.stats.client.HitOverflowPolicy;
+import ru.practicum.stats.client.StatsCacheSettings;
 import ru.practicum.stats.client.StatsClient;
 
+import java.time.Duration;
+
 @Configuration
 public class StatsClientConfig {
 
     @Value("${stats-server.url}")
     private String statsServerUrl;
 
+    @Value("${stats-server.async-hits.enabled:false}")
+    private boolean asyncHitsEnabled;
+
+    @Value("${stats-server.async-hits.capacity:10000}")
+    private int asyncHitsCapacity;
+
+    @Value("${stats-server.async-hits.batch-size:100}")
+    private int asyncHitsBatchSize;
+
+    @Value("${stats-server.async-hits.flush-interval-ms:1000}")
+    private long asyncHitsFlushIntervalMs;
+
+    @Value("${stats-server.async-hits.overflow-policy:DROP_NEWEST}")
+    private HitOverflowPolicy asyncHitsOverflowPolicy;
+
+    @Value("${stats-server.stats-cache.enabled:false}")
+    private boolean statsCacheEnabled;
+
+    @Value("${stats-server.stats-cache.maximum-size:10000}")
+    private long statsCacheMaximumSize;
+
+    @Value("${stats-server.stats-cache.ttl-ms:5000}")
+    private long statsCacheTtlMs;
+
+    @Value("${stats-server.stats-cache.granularity-ms:1000}")
+    private long statsCacheGranularityMs;
+
     @Bean
-    public StatsClient statsClient(RestTemplateBuilder builder) {
-        return new StatsClient(statsServerUrl, builder);
+    public StatsClient statsClient(RestTemplateBuilder builder, MeterRegistry meterRegistry) {
+        StatsClient client = new StatsClient(statsServerUrl, builder);
+        if (asyncHitsEnabled) {
+            client.enableAsyncHits(AsyncHitSettings.builder()
+                    .capacity(asyncHitsCapacity)
+                    .batchSize(asyncHitsBatchSize)
+                    .flushInterval(Duration.ofMillis(asyncHitsFlushIntervalMs))
+                    .overflowPolicy(asyncHitsOverflowPolicy)
+                    .build());
+            Gauge.builder("stats.client.hits.queued", client, StatsClient::getQueuedHits)
+                    .description("Hits waiting to be sent to stats-server")
+                    .register(meterRegistry);
+            FunctionCounter.builder("stats.client.hits.dropped", client, StatsClient::getDroppedHits)
+                    .description("Hits dropped because the buffer was full or sending failed")
+                    .register(meterRegistry);
+        }
+        if (statsCacheEnabled) {
+            client.enableStatsCache(StatsCacheSettings.builder()
+                    .maximumSize(statsCacheMaximumSize)
+                    .ttl(Duration.ofMillis(statsCacheTtlMs))
+                    .granularity(Duration.ofMillis(statsCacheGranularityMs))
+                    .build());
+            CaffeineCacheMetrics.monitor(meterRegistry, client.getStatsCache(), "stats-client");
+        }
+        return client;
     }
 }
@@ -5,6 +5,7 @@ import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.main.compilation.dto.CompilationDto;
 import ru.practicum.main.compilation.service.CompilationService;
 
@@ -21,12 +22,21 @@ public class PublicCompilationController {
     public List<CompilationDto> getCompilations(
             @RequestParam(required = false) Boolean pinned,
             @RequestParam(defaultValue = "0") @PositiveOrZero int from,
-            @RequestParam(defaultValue = "10") @Positive int size) {
+            @RequestParam(defaultValue = "10") @Positive int size,
+            WebRequest webRequest) {
+        String tag = compilationService.getCompilationsTag(pinned, from, size);
+        if (tag != null && webRequest.checkNotModified(tag)) {
+            return null;
+        }
         return compilationService.getCompilations(pinned, from, size);
     }
 
     @GetMapping("/{compId}")
-    public CompilationDto getCompilation(@PathVariable Long compId) {
+    public CompilationDto getCompilation(@PathVariable Long compId, WebRequest webRequest) {
+        String tag = compilationService.getCompilationTag(compId);
+        if (tag != null && webRequest.checkNotModified(tag)) {
+            return null;
+        }
         return compilationService.getCompilation(compId);
     }
 }
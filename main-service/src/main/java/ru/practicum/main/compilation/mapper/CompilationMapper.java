@@ -6,48 +6,47 @@ import ru.practicum.main.compilation.dto.CompilationDto;
 import ru.practicum.main.compilation.model.Compilation;
 import ru.practicum.main.event.dto.EventShortDto;
 import ru.practicum.main.event.mapper.EventMapper;
-import ru.practicum.main.request.model.RequestStatus;
-import ru.practicum.main.request.repository.RequestRepository;
-import ru.practicum.stats.client.StatsClient;
-import ru.practicum.stats.dto.StatsDto;
+import ru.practicum.main.event.model.Event;
+import ru.practicum.main.event.service.EventStatsService;
 
-import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Component
 @RequiredArgsConstructor
 public class CompilationMapper {
     private final EventMapper eventMapper;
-    private final RequestRepository requestRepository;
-    private final StatsClient statsClient;
+    private final EventStatsService eventStatsService;
 
     public CompilationDto toCompilationDto(Compilation compilation) {
-        Set<EventShortDto> events = compilation.getEvents() == null ? Set.of() :
-                compilation.getEvents().stream()
-                        .map(event -> {
-                            long confirmedRequests = requestRepository.countByEventIdAndStatus(event.getId(), RequestStatus.CONFIRMED);
-                            long views = getEventViews(event.getId());
-                            return eventMapper.toEventShortDto(event, confirmedRequests, views);
-                        })
-                        .collect(Collectors.toSet());
-        return CompilationDto.builder()
-                .id(compilation.getId())
-                .title(compilation.getTitle())
-                .pinned(compilation.getPinned())
-                .events(events)
-                .build();
+        return toCompilationDtos(List.of(compilation)).get(0);
     }
 
-    private long getEventViews(Long eventId) {
-        String uri = "/events/" + eventId;
-        LocalDateTime start = LocalDateTime.of(0, 1, 1, 0, 0);
-        LocalDateTime end = LocalDateTime.now();
-        List<StatsDto> stats = statsClient.getStats(start, end, List.of(uri), true).getBody();
-        if (stats != null && !stats.isEmpty()) {
-            return stats.getFirst().getHits();
+    public List<CompilationDto> toCompilationDtos(Collection<Compilation> compilations) {
+        Map<Long, Event> events = compilations.stream()
+                .filter(compilation -> compilation.getEvents() != null)
+                .flatMap(compilation -> compilation.getEvents().stream())
+                .collect(Collectors.toMap(Event::getId, Function.identity(), (first, second) -> first));
+        Map<Long, EventShortDto> shortDtos = Map.of();
+        if (!events.isEmpty()) {
+            shortDtos = eventMapper.toEventShortDtos(events.values(), eventStatsService.getViews(events.values()))
+                    .stream()
+                    .collect(Collectors.toMap(EventShortDto::getId, Function.identity()));
         }
-        return 0L;
+        Map<Long, EventShortDto> eventDtos = shortDtos;
+        return compilations.stream()
+                .map(compilation -> CompilationDto.builder()
+                        .id(compilation.getId())
+                        .title(compilation.getTitle())
+                        .pinned(compilation.getPinned())
+                        .events(compilation.getEvents() == null ? Set.of() : compilation.getEvents().stream()
+                                .map(event -> eventDtos.get(event.getId()))
+                                .collect(Collectors.toSet()))
+                        .build())
+                .toList();
     }
 }
@@ -2,6 +2,7 @@ package ru.practicum.main.compilation.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 import ru.practicum.main.event.model.Event;
 
 import java.util.Set;
@@ -19,6 +20,7 @@ public class Compilation {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @BatchSize(size = 50)
     @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
             name = "compilation_events",
@@ -32,4 +34,8 @@ public class Compilation {
 
     @Column(nullable = false, unique = true, length = 50)
     private String title;
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
 }
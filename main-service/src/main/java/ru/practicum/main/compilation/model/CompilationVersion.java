@@ -0,0 +1,28 @@
+package ru.practicum.main.compilation.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class CompilationVersion {
+
+    private Long compilationId;
+    private Long version;
+    private Long eventId;
+    private Long eventVersion;
+    private Long confirmedRequests;
+    private Long views;
+    private Long categoryVersion;
+
+    public List<Long> eventParts() {
+        List<Long> parts = new ArrayList<>();
+        if (eventId != null) {
+            parts.addAll(List.of(eventId, eventVersion, confirmedRequests, views, categoryVersion));
+        }
+        return parts;
+    }
+}
@@ -1,16 +1,29 @@
 package ru.practicum.main.compilation.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.main.compilation.model.Compilation;
+import ru.practicum.main.compilation.model.CompilationVersion;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface CompilationRepository extends JpaRepository<Compilation, Long> {
-    Page<Compilation> findByPinned(Boolean pinned, Pageable pageable);
+    @Query("SELECT c.id FROM Compilation c WHERE c.pinned = :pinned ORDER BY c.id")
+    Slice<Long> findIdsByPinned(@Param("pinned") Boolean pinned, Pageable pageable);
 
-    Page<Compilation> findAll(Pageable pageable);
+    @Query("SELECT c.id FROM Compilation c ORDER BY c.id")
+    Slice<Long> findIds(Pageable pageable);
 
     Optional<Compilation> findById(Long id);
+
+    @Query("SELECT new ru.practicum.main.compilation.model.CompilationVersion(" +
+            "c.id, c.version, e.id, e.version, e.confirmedRequests, e.views, cat.version) " +
+            "FROM Compilation c LEFT JOIN c.events e LEFT JOIN e.category cat " +
+            "WHERE c.id IN :ids ORDER BY c.id, e.id")
+    List<CompilationVersion> findVersions(@Param("ids") Collection<Long> ids);
 }
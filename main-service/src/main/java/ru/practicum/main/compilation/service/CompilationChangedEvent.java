@@ -0,0 +1,11 @@
+package ru.practicum.main.compilation.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class CompilationChangedEvent {
+
+    private final Long compilationId;
+}
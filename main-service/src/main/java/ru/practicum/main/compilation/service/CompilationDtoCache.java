@@ -0,0 +1,162 @@
+package ru.practicum.main.compilation.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.main.cache.CacheConfig;
+import ru.practicum.main.compilation.dto.CompilationDto;
+import ru.practicum.main.event.dto.EventShortDto;
+import ru.practicum.main.event.mapper.EventMapper;
+import ru.practicum.main.event.model.EventShortProjection;
+import ru.practicum.main.event.repository.EventRepository;
+import ru.practicum.main.event.repository.EventSpecifications;
+import ru.practicum.main.event.service.EventChangedEvent;
+import ru.practicum.main.event.service.EventStatsService;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+public class CompilationDtoCache {
+
+    private final ConcurrentMap<Object, Object> entries;
+    private final AtomicLong generations = new AtomicLong();
+    private final EventRepository eventRepository;
+    private final EventMapper eventMapper;
+    private final EventStatsService eventStatsService;
+
+    @SuppressWarnings("unchecked")
+    public CompilationDtoCache(CacheManager cacheManager, EventRepository eventRepository, EventMapper eventMapper,
+                               EventStatsService eventStatsService) {
+        org.springframework.cache.Cache cache = Objects.requireNonNull(
+                cacheManager.getCache(CacheConfig.COMPILATIONS));
+        this.entries = ((Cache<Object, Object>) cache.getNativeCache()).asMap();
+        this.eventRepository = eventRepository;
+        this.eventMapper = eventMapper;
+        this.eventStatsService = eventStatsService;
+    }
+
+    public Map<Long, CompilationDto> getAll(Map<Long, List<Long>> versions) {
+        Map<Long, CompilationDto> result = new HashMap<>();
+        for (Map.Entry<Long, List<Long>> version : versions.entrySet()) {
+            Entry entry = (Entry) entries.get(version.getKey());
+            if (entry != null && entry.getVersions().equals(version.getValue())) {
+                result.put(version.getKey(), entry.getDto());
+            }
+        }
+        return result;
+    }
+
+    public long generation() {
+        return generations.get();
+    }
+
+    public void put(CompilationDto dto, List<Long> versions, long generation) {
+        Entry entry = new Entry(dto, versions);
+        entries.put(dto.getId(), entry);
+        dropIfInvalidated(dto.getId(), entry, generation);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onCompilationChanged(CompilationChangedEvent changed) {
+        generations.incrementAndGet();
+        entries.remove(changed.getCompilationId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onEventChanged(EventChangedEvent changed) {
+        generations.incrementAndGet();
+        entries.values().removeIf(entry -> ((Entry) entry).getDto().getEvents().stream()
+                .anyMatch(event -> event.getId().equals(changed.getEventId())));
+    }
+
+    @Scheduled(fixedDelayString = "${compilations.cache.refresh-interval-ms:30000}",
+            initialDelayString = "${compilations.cache.refresh-interval-ms:30000}")
+    public void refresh() {
+        long generation = generations.get();
+        Map<Object, Object> snapshot = Map.copyOf(entries);
+        if (snapshot.isEmpty()) {
+            return;
+        }
+        List<Long> eventIds = snapshot.values().stream()
+                .flatMap(entry -> ((Entry) entry).getDto().getEvents().stream())
+                .map(EventShortDto::getId)
+                .distinct()
+                .toList();
+        Map<Long, EventShortDto> events = Map.of();
+        if (!eventIds.isEmpty()) {
+            List<EventShortProjection> projections = eventRepository.findShortWithoutCount(
+                    EventSpecifications.idIn(eventIds), Pageable.unpaged());
+            Map<Long, Long> views = eventStatsService.resolveViews(projections.stream()
+                    .collect(Collectors.toMap(EventShortProjection::getId, EventShortProjection::getViews, Math::max)));
+            events = projections.stream()
+                    .map(event -> eventMapper.toEventShortDto(event, views.getOrDefault(event.getId(), 0L)))
+                    .collect(Collectors.toMap(EventShortDto::getId, Function.identity()));
+        }
+        for (Map.Entry<Object, Object> entry : snapshot.entrySet()) {
+            Entry current = (Entry) entry.getValue();
+            CompilationDto cached = current.getDto();
+            Map<Long, EventShortDto> refreshed = events;
+            Set<EventShortDto> compilationEvents = cached.getEvents().stream()
+                    .map(event -> refreshed.get(event.getId()))
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toSet());
+            if (contentOf(compilationEvents).equals(contentOf(cached.getEvents()))) {
+                continue;
+            }
+            CompilationDto fresh = CompilationDto.builder()
+                    .id(cached.getId())
+                    .title(cached.getTitle())
+                    .pinned(cached.getPinned())
+                    .events(compilationEvents)
+                    .build();
+            Entry replacement = new Entry(fresh, current.getVersions());
+            if (entries.replace(entry.getKey(), current, replacement)) {
+                dropIfInvalidated(entry.getKey(), replacement, generation);
+            }
+        }
+        log.debug("Refreshed {} cached compilations ({} events)", snapshot.size(), eventIds.size());
+    }
+
+    private void dropIfInvalidated(Object key, Entry entry, long generation) {
+        if (generations.get() != generation) {
+            entries.remove(key, entry);
+        }
+    }
+
+    private List<List<Object>> contentOf(Collection<EventShortDto> events) {
+        return events.stream()
+                .sorted(Comparator.comparing(EventShortDto::getId))
+                .map(event -> Arrays.<Object>asList(event.getId(), event.getAnnotation(), event.getCategory().getId(),
+                        event.getCategory().getName(), event.getConfirmedRequests(), event.getEventDate(),
+                        event.getInitiator().getId(), event.getInitiator().getName(), event.getPaid(),
+                        event.getTitle(), event.getViews()))
+                .toList();
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class Entry {
+
+        private final CompilationDto dto;
+        private final List<Long> versions;
+    }
+}
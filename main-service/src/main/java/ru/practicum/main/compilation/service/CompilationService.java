@@ -16,4 +16,8 @@ public interface CompilationService {
     List<CompilationDto> getCompilations(Boolean pinned, int from, int size);
 
     CompilationDto getCompilation(Long compId);
+
+    String getCompilationsTag(Boolean pinned, int from, int size);
+
+    String getCompilationTag(Long compId);
 }
@@ -1,7 +1,9 @@
 package ru.practicum.main.compilation.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.main.compilation.dto.CompilationDto;
@@ -9,14 +11,21 @@ import ru.practicum.main.compilation.dto.NewCompilationDto;
 import ru.practicum.main.compilation.dto.UpdateCompilationRequest;
 import ru.practicum.main.compilation.mapper.CompilationMapper;
 import ru.practicum.main.compilation.model.Compilation;
+import ru.practicum.main.compilation.model.CompilationVersion;
 import ru.practicum.main.compilation.repository.CompilationRepository;
+import ru.practicum.main.etag.ETags;
 import ru.practicum.main.event.model.Event;
 import ru.practicum.main.event.repository.EventRepository;
+import ru.practicum.main.event.service.EventStatsService;
 import ru.practicum.main.exception.NotFoundException;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -28,6 +37,9 @@ public class CompilationServiceImpl implements CompilationService {
     private final CompilationRepository compilationRepository;
     private final EventRepository eventRepository;
     private final CompilationMapper compilationMapper;
+    private final CompilationDtoCache compilationDtoCache;
+    private final EventStatsService eventStatsService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(rollbackFor = {NotFoundException.class})
     @Override
@@ -52,6 +64,7 @@ public class CompilationServiceImpl implements CompilationService {
             throw new NotFoundException("Compilation not found");
         }
         compilationRepository.deleteById(compId);
+        eventPublisher.publishEvent(new CompilationChangedEvent(compId));
     }
 
     @Transactional(rollbackFor = {NotFoundException.class})
@@ -70,31 +83,84 @@ public class CompilationServiceImpl implements CompilationService {
             compilation.setEvents(events);
         }
         Compilation updated = compilationRepository.save(compilation);
+        eventPublisher.publishEvent(new CompilationChangedEvent(compId));
         return compilationMapper.toCompilationDto(updated);
     }
 
     @Transactional(readOnly = true)
     @Override
     public List<CompilationDto> getCompilations(Boolean pinned, int from, int size) {
-        PageRequest pageRequest = PageRequest.of(from / size, size);
-        if (pinned != null) {
-            return compilationRepository.findByPinned(pinned, pageRequest)
-                    .stream()
-                    .map(compilationMapper::toCompilationDto)
-                    .collect(Collectors.toList());
-        } else {
-            return compilationRepository.findAll(pageRequest)
-                    .stream()
-                    .map(compilationMapper::toCompilationDto)
-                    .collect(Collectors.toList());
-        }
+        return toCompilationDtos(findIds(pinned, from, size));
     }
 
     @Transactional(readOnly = true)
     @Override
     public CompilationDto getCompilation(Long compId) {
-        Compilation compilation = compilationRepository.findById(compId)
-                .orElseThrow(() -> new NotFoundException("Compilation not found"));
-        return compilationMapper.toCompilationDto(compilation);
+        List<CompilationDto> compilations = toCompilationDtos(List.of(compId));
+        if (compilations.isEmpty()) {
+            throw new NotFoundException("Compilation not found");
+        }
+        return compilations.get(0);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public String getCompilationsTag(Boolean pinned, int from, int size) {
+        if (!eventStatsService.isSnapshotFresh()) {
+            return null;
+        }
+        return ETags.of("compilations", findVersions(findIds(pinned, from, size)).entrySet());
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public String getCompilationTag(Long compId) {
+        if (!eventStatsService.isSnapshotFresh()) {
+            return null;
+        }
+        Map<Long, List<Long>> versions = findVersions(List.of(compId));
+        return versions.isEmpty() ? null : ETags.of("compilation-" + compId, versions.entrySet());
+    }
+
+    private List<Long> findIds(Boolean pinned, int from, int size) {
+        PageRequest pageRequest = PageRequest.of(from / size, size);
+        Slice<Long> ids = pinned != null
+                ? compilationRepository.findIdsByPinned(pinned, pageRequest)
+                : compilationRepository.findIds(pageRequest);
+        return ids.getContent();
+    }
+
+    private Map<Long, List<Long>> findVersions(List<Long> ids) {
+        Map<Long, List<Long>> versions = new LinkedHashMap<>();
+        if (ids.isEmpty()) {
+            return versions;
+        }
+        for (CompilationVersion version : compilationRepository.findVersions(ids)) {
+            versions.computeIfAbsent(version.getCompilationId(), id -> new ArrayList<>(List.of(version.getVersion())))
+                    .addAll(version.eventParts());
+        }
+        return versions;
+    }
+
+    private List<CompilationDto> toCompilationDtos(List<Long> ids) {
+        Map<Long, List<Long>> versions = findVersions(ids);
+        Map<Long, CompilationDto> compilations = compilationDtoCache.getAll(versions);
+        List<Long> missing = ids.stream()
+                .filter(id -> !compilations.containsKey(id))
+                .toList();
+        if (!missing.isEmpty()) {
+            long generation = compilationDtoCache.generation();
+            for (CompilationDto dto : compilationMapper.toCompilationDtos(compilationRepository.findAllById(missing))) {
+                List<Long> version = versions.get(dto.getId());
+                if (version != null) {
+                    compilationDtoCache.put(dto, version, generation);
+                }
+                compilations.put(dto.getId(), dto);
+            }
+        }
+        return ids.stream()
+                .map(compilations::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
     }
 }
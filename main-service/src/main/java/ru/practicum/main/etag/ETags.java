@@ -0,0 +1,20 @@
+package ru.practicum.main.etag;
+
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.stream.Collectors;
+
+public final class ETags {
+
+    private ETags() {
+    }
+
+    public static String of(String prefix, Collection<?> parts) {
+        String joined = parts.stream()
+                .map(String::valueOf)
+                .collect(Collectors.joining(","));
+        return prefix + "-" + DigestUtils.md5DigestAsHex(joined.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.main.etag;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class EntityVersion {
+
+    private Long id;
+    private Long version;
+
+    @Override
+    public String toString() {
+        return id + ":" + version;
+    }
+}
@@ -1,5 +1,6 @@
 package ru.practicum.main.event.controller;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
@@ -8,6 +9,7 @@ import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.main.event.dto.EventFullDto;
+import ru.practicum.main.event.dto.EventPage;
 import ru.practicum.main.event.dto.UpdateEventAdminRequest;
 import ru.practicum.main.event.model.EventState;
 import ru.practicum.main.event.service.EventService;
@@ -30,10 +32,17 @@ public class AdminEventController {
             @RequestParam(required = false) List<Long> categories,
             @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime rangeStart,
             @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime rangeEnd,
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "0") @PositiveOrZero int from,
-            @RequestParam(defaultValue = "10") @Positive int size) {
+            @RequestParam(defaultValue = "10") @Positive int size,
+            HttpServletResponse response) {
         if (categories == null) categories = Collections.emptyList();
-        return eventService.searchAdminEvents(users, states, categories, rangeStart, rangeEnd, from, size);
+        EventPage<EventFullDto> page = eventService.searchAdminEvents(users, states, categories, rangeStart, rangeEnd,
+                cursor, from, size);
+        if (page.getNextCursor() != null) {
+            response.setHeader(EventPage.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return page.getItems();
     }
 
     @PatchMapping("/{eventId}")
@@ -1,5 +1,6 @@
 package ru.practicum.main.event.controller;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
@@ -7,6 +8,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.main.event.dto.EventFullDto;
+import ru.practicum.main.event.dto.EventPage;
 import ru.practicum.main.event.dto.EventShortDto;
 import ru.practicum.main.event.dto.NewEventDto;
 import ru.practicum.main.event.dto.UpdateEventUserRequest;
@@ -30,9 +32,15 @@ public class PrivateEventController {
     @GetMapping
     public List<EventShortDto> getUserEvents(
             @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "0") @PositiveOrZero int from,
-            @RequestParam(defaultValue = "10") @Positive int size) {
-        return eventService.getUserEvents(userId, from, size);
+            @RequestParam(defaultValue = "10") @Positive int size,
+            HttpServletResponse response) {
+        EventPage<EventShortDto> page = eventService.getUserEvents(userId, cursor, from, size);
+        if (page.getNextCursor() != null) {
+            response.setHeader(EventPage.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return page.getItems();
     }
 
     @GetMapping("/{eventId}")
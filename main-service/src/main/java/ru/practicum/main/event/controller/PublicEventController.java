@@ -1,13 +1,16 @@
 package ru.practicum.main.event.controller;
 
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.main.event.dto.EventFullDto;
+import ru.practicum.main.event.dto.EventPage;
 import ru.practicum.main.event.dto.EventShortDto;
 import ru.practicum.main.event.service.EventService;
 import ru.practicum.stats.client.StatsClient;
@@ -35,9 +38,11 @@ public class PublicEventController {
             @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime rangeEnd,
             @RequestParam(defaultValue = "false") Boolean onlyAvailable,
             @RequestParam(defaultValue = "EVENT_DATE") String sort,
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "0") @PositiveOrZero int from,
             @RequestParam(defaultValue = "10") @Positive int size,
-            HttpServletRequest request) {
+            HttpServletRequest request,
+            HttpServletResponse response) {
         statsClient.addHit(HitDto.builder()
                 .app("main-service")
                 .uri(request.getRequestURI())
@@ -45,17 +50,26 @@ public class PublicEventController {
                 .timestamp(LocalDateTime.now())
                 .build());
         if (categories == null) categories = Collections.emptyList();
-        return eventService.searchPublicEvents(text, categories, paid, rangeStart, rangeEnd, onlyAvailable, sort, from, size, request);
+        EventPage<EventShortDto> page = eventService.searchPublicEvents(text, categories, paid, rangeStart, rangeEnd,
+                onlyAvailable, sort, cursor, from, size, request);
+        if (page.getNextCursor() != null) {
+            response.setHeader(EventPage.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return page.getItems();
     }
 
     @GetMapping("/{id}")
-    public EventFullDto getPublicEvent(@PathVariable Long id, HttpServletRequest request) {
+    public EventFullDto getPublicEvent(@PathVariable Long id, HttpServletRequest request, WebRequest webRequest) {
         statsClient.addHit(HitDto.builder()
                 .app("main-service")
                 .uri(request.getRequestURI())
                 .ip(request.getRemoteAddr())
                 .timestamp(LocalDateTime.now())
                 .build());
+        String tag = eventService.getPublicEventTag(id);
+        if (tag != null && webRequest.checkNotModified(tag)) {
+            return null;
+        }
         return eventService.getPublicEvent(id, request);
     }
 }
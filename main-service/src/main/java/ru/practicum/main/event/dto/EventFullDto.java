@@ -31,6 +31,7 @@ public class EventFullDto {
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd HH:mm:ss")
     private LocalDateTime publishedOn;
     private Boolean requestModeration;
+    private Boolean waitlist;
     private EventState state;
     private String title;
     private Long views;
@@ -0,0 +1,16 @@
+package ru.practicum.main.event.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class EventPage<T> {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private List<T> items;
+    private String nextCursor;
+}
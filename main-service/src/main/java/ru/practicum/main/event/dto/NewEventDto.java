@@ -39,6 +39,9 @@ public class NewEventDto {
 
     private Boolean requestModeration = true;
 
+    @Builder.Default
+    private Boolean waitlist = false;
+
     @NotBlank
     @Size(min = 3, max = 120)
     private String title;
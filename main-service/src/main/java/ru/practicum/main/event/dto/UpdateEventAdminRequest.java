@@ -35,6 +35,8 @@ public class UpdateEventAdminRequest {
 
     private Boolean requestModeration;
 
+    private Boolean waitlist;
+
     private EventStateActionAdmin stateAction;
 
     @Size(min = 3, max = 120)
@@ -37,6 +37,8 @@ public class UpdateEventUserRequest {
 
     private Boolean requestModeration;
 
+    private Boolean waitlist;
+
     private EventStateActionUser stateAction;
 
     @Size(min = 3, max = 120)
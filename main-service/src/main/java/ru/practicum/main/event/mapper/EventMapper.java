@@ -2,16 +2,25 @@ package ru.practicum.main.event.mapper;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
+import ru.practicum.main.category.dto.CategoryDto;
 import ru.practicum.main.category.mapper.CategoryMapper;
 import ru.practicum.main.category.model.Category;
+import ru.practicum.main.category.service.CategoryService;
 import ru.practicum.main.event.dto.EventFullDto;
 import ru.practicum.main.event.dto.EventShortDto;
 import ru.practicum.main.event.dto.NewEventDto;
 import ru.practicum.main.event.model.Event;
+import ru.practicum.main.event.model.EventShortProjection;
 import ru.practicum.main.location.mapper.LocationMapper;
 import ru.practicum.main.location.model.Location;
+import ru.practicum.main.user.dto.UserShortDto;
 import ru.practicum.main.user.mapper.UserMapper;
 import ru.practicum.main.user.model.User;
+import ru.practicum.main.user.service.UserService;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 @Component
 @RequiredArgsConstructor
@@ -19,6 +28,8 @@ public class EventMapper {
     private final CategoryMapper categoryMapper;
     private final UserMapper userMapper;
     private final LocationMapper locationMapper;
+    private final CategoryService categoryService;
+    private final UserService userService;
 
     public Event toEvent(NewEventDto dto, User initiator,
                          Category category, Location location) {
@@ -34,17 +45,20 @@ public class EventMapper {
                 .participantLimit(dto.getParticipantLimit() != null ? dto.getParticipantLimit() : 0)
                 .publishedOn(null)
                 .requestModeration(dto.getRequestModeration() != null ? dto.getRequestModeration() : true)
+                .waitlist(dto.getWaitlist() != null ? dto.getWaitlist() : false)
                 .state(null)
                 .title(dto.getTitle())
+                .confirmedRequests(0L)
+                .views(0L)
                 .build();
     }
 
-    public EventFullDto toEventFullDto(Event event, long confirmedRequests, long views) {
+    public EventFullDto toEventFullDto(Event event, long views) {
         return EventFullDto.builder()
                 .id(event.getId())
                 .annotation(event.getAnnotation())
                 .category(categoryMapper.toCategoryDto(event.getCategory()))
-                .confirmedRequests(confirmedRequests)
+                .confirmedRequests(event.getConfirmedRequests())
                 .createdOn(event.getCreatedOn())
                 .description(event.getDescription())
                 .eventDate(event.getEventDate())
@@ -54,20 +68,43 @@ public class EventMapper {
                 .participantLimit(event.getParticipantLimit())
                 .publishedOn(event.getPublishedOn())
                 .requestModeration(event.getRequestModeration())
+                .waitlist(event.getWaitlist())
                 .state(event.getState())
                 .title(event.getTitle())
                 .views(views)
                 .build();
     }
 
-    public EventShortDto toEventShortDto(Event event, long confirmedRequests, long views) {
+    public List<EventShortDto> toEventShortDtos(Collection<Event> events, Map<Long, Long> views) {
+        Map<Long, CategoryDto> categories = categoryService.getCategories(events.stream()
+                .map(event -> event.getCategory().getId())
+                .toList());
+        Map<Long, UserShortDto> initiators = userService.getUserShorts(events.stream()
+                .map(event -> event.getInitiator().getId())
+                .toList());
+        return events.stream()
+                .map(event -> EventShortDto.builder()
+                        .id(event.getId())
+                        .annotation(event.getAnnotation())
+                        .category(categories.get(event.getCategory().getId()))
+                        .confirmedRequests(event.getConfirmedRequests())
+                        .eventDate(event.getEventDate())
+                        .initiator(initiators.get(event.getInitiator().getId()))
+                        .paid(event.getPaid())
+                        .title(event.getTitle())
+                        .views(views.getOrDefault(event.getId(), 0L))
+                        .build())
+                .toList();
+    }
+
+    public EventShortDto toEventShortDto(EventShortProjection event, long views) {
         return EventShortDto.builder()
                 .id(event.getId())
                 .annotation(event.getAnnotation())
-                .category(categoryMapper.toCategoryDto(event.getCategory()))
-                .confirmedRequests(confirmedRequests)
+                .category(new CategoryDto(event.getCategoryId(), event.getCategoryName()))
+                .confirmedRequests(event.getConfirmedRequests())
                 .eventDate(event.getEventDate())
-                .initiator(userMapper.toUserShortDto(event.getInitiator()))
+                .initiator(new UserShortDto(event.getInitiatorId(), event.getInitiatorName()))
                 .paid(event.getPaid())
                 .title(event.getTitle())
                 .views(views)
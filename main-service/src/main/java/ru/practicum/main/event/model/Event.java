@@ -15,8 +15,15 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Entity
 @Table(name = "events")
+@NamedEntityGraph(name = Event.DETAILS_GRAPH, attributeNodes = {
+        @NamedAttributeNode("category"),
+        @NamedAttributeNode("initiator"),
+        @NamedAttributeNode("location")
+})
 public class Event {
 
+    public static final String DETAILS_GRAPH = "Event.details";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -57,6 +64,9 @@ public class Event {
     @Column(name = "request_moderation", nullable = false)
     private Boolean requestModeration;
 
+    @Column(nullable = false)
+    private Boolean waitlist;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, length = 10)
     private EventState state;
@@ -64,4 +74,14 @@ public class Event {
     @Column(nullable = false, length = 120)
     private String title;
 
+    @Column(name = "confirmed_requests", nullable = false, updatable = false)
+    private Long confirmedRequests;
+
+    @Column(nullable = false, updatable = false)
+    private Long views;
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
 }
@@ -0,0 +1,19 @@
+package ru.practicum.main.event.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class EventSearchDocument {
+
+    private Long id;
+    private String title;
+    private String annotation;
+    private String description;
+    private Long categoryId;
+    private Boolean paid;
+    private LocalDateTime eventDate;
+}
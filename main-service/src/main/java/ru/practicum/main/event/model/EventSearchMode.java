@@ -0,0 +1,7 @@
+package ru.practicum.main.event.model;
+
+public enum EventSearchMode {
+    LIKE,
+    FULL_TEXT,
+    IN_MEMORY
+}
@@ -0,0 +1,23 @@
+package ru.practicum.main.event.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class EventShortProjection {
+
+    private Long id;
+    private String annotation;
+    private Long categoryId;
+    private String categoryName;
+    private Long confirmedRequests;
+    private LocalDateTime eventDate;
+    private Long initiatorId;
+    private String initiatorName;
+    private Boolean paid;
+    private String title;
+    private Long views;
+}
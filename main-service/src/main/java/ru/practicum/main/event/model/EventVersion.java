@@ -0,0 +1,20 @@
+package ru.practicum.main.event.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class EventVersion {
+
+    private Long version;
+    private Long confirmedRequests;
+    private Long views;
+    private Long categoryVersion;
+
+    public List<Long> toList() {
+        return List.of(version, confirmedRequests, views, categoryVersion);
+    }
+}
@@ -0,0 +1,25 @@
+package ru.practicum.main.event.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "views_sync_state")
+public class ViewsSyncState {
+
+    public static final int SINGLETON_ID = 1;
+
+    @Id
+    private Integer id;
+
+    @Column(name = "synced_to", nullable = false)
+    private LocalDateTime syncedTo;
+
+}
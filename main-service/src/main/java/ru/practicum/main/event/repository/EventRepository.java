@@ -1,43 +1,40 @@
 package ru.practicum.main.event.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.main.event.model.Event;
+import ru.practicum.main.event.model.EventSearchDocument;
 import ru.practicum.main.event.model.EventState;
+import ru.practicum.main.event.model.EventVersion;
+import ru.practicum.main.request.repository.EventRequestCount;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface EventRepository extends JpaRepository<Event, Long>, JpaSpecificationExecutor<Event> {
-
-    @Query("SELECT e FROM Event e " +
-            "WHERE e.state = 'PUBLISHED' " +
-            "AND (:text IS NULL OR (LOWER(e.annotation) LIKE LOWER(CONCAT('%', :text, '%')) OR LOWER(e.description) LIKE LOWER(CONCAT('%', :text, '%')))) " +
-            "AND (:categories IS NULL OR e.category.id IN :categories) " +
-            "AND (:paid IS NULL OR e.paid = :paid) " +
-            "AND (COALESCE(:rangeStart, NULL) IS NULL OR e.eventDate >= :rangeStart) " +
-            "AND (COALESCE(:rangeEnd, NULL) IS NULL OR e.eventDate <= :rangeEnd) " +
-            "AND (e.participantLimit = 0 OR e.participantLimit > :confirmedRequests)")
-    Page<Event> searchPublicEventsOnlyAvailable(
-            @Param("text") String text,
-            @Param("categories") List<Long> categories,
-            @Param("paid") Boolean paid,
-            @Param("rangeStart") LocalDateTime rangeStart,
-            @Param("rangeEnd") LocalDateTime rangeEnd,
-            @Param("confirmedRequests") Integer confirmedRequests,
-            Pageable pageable);
-
-    Page<Event> findByInitiatorId(Long userId, Pageable pageable);
+public interface EventRepository extends JpaRepository<Event, Long>, JpaSpecificationExecutor<Event>,
+        EventRepositoryCustom {
 
+    @EntityGraph(Event.DETAILS_GRAPH)
+    Optional<Event> findDetailedById(Long id);
+
+    @EntityGraph(Event.DETAILS_GRAPH)
     Optional<Event> findByIdAndInitiatorId(Long eventId, Long userId);
 
+    @EntityGraph(Event.DETAILS_GRAPH)
     Optional<Event> findByIdAndState(Long eventId, EventState state);
 
+    @EntityGraph(Event.DETAILS_GRAPH)
     List<Event> findByIdIn(List<Long> ids);
 
     List<Event> findByIdInAndState(List<Long> ids, EventState state);
@@ -53,4 +50,59 @@ public interface EventRepository extends JpaRepository<Event, Long>, JpaSpecific
     Page<Event> findByEventDateBetweenAndState(LocalDateTime start, LocalDateTime end, EventState state, Pageable pageable);
 
     boolean existsByCategoryId(Long categoryId);
+
+    @Modifying
+    @Query(value = "UPDATE events SET confirmed_requests = confirmed_requests + :delta WHERE id = :eventId",
+            nativeQuery = true)
+    int addConfirmedRequests(@Param("eventId") Long eventId, @Param("delta") long delta);
+
+    @Modifying
+    @Query(value = "UPDATE events SET confirmed_requests = confirmed_requests + :count " +
+            "WHERE id = :eventId AND (participant_limit = 0 OR confirmed_requests + :count <= participant_limit)",
+            nativeQuery = true)
+    int reserveConfirmedRequests(@Param("eventId") Long eventId, @Param("count") long count);
+
+    @Modifying
+    @Query(value = "UPDATE events SET queue_seq = queue_seq + 1 WHERE id = :eventId", nativeQuery = true)
+    int advanceQueueSequence(@Param("eventId") Long eventId);
+
+    @Query(value = "SELECT queue_seq FROM events WHERE id = :eventId", nativeQuery = true)
+    long findQueueSequence(@Param("eventId") Long eventId);
+
+    @Query("SELECT e.id AS eventId, e.confirmedRequests AS requestCount " +
+            "FROM Event e " +
+            "WHERE e.id > :afterId " +
+            "ORDER BY e.id")
+    List<EventRequestCount> findConfirmedRequestCounters(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query(value = "SELECT id FROM events WHERE id = :eventId FOR UPDATE", nativeQuery = true)
+    Optional<Long> lockById(@Param("eventId") Long eventId);
+
+    @Modifying
+    @Query(value = "UPDATE events e " +
+            "SET confirmed_requests = (SELECT COUNT(*) FROM requests r WHERE r.event_id = e.id AND r.status = 'CONFIRMED') " +
+            "WHERE e.id = :eventId " +
+            "AND e.confirmed_requests <> (SELECT COUNT(*) FROM requests r WHERE r.event_id = e.id AND r.status = 'CONFIRMED')",
+            nativeQuery = true)
+    int reconcileConfirmedRequests(@Param("eventId") Long eventId);
+
+    @Modifying
+    @Query(value = "UPDATE events SET views = :views WHERE id = :eventId AND views < :views", nativeQuery = true)
+    int updateViews(@Param("eventId") Long eventId, @Param("views") long views);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new ru.practicum.main.event.model.EventSearchDocument(" +
+            "e.id, e.title, e.annotation, e.description, e.category.id, e.paid, e.eventDate) " +
+            "FROM Event e WHERE e.state = :state")
+    Stream<EventSearchDocument> streamSearchDocuments(@Param("state") EventState state);
+
+    @Query("SELECT new ru.practicum.main.event.model.EventSearchDocument(" +
+            "e.id, e.title, e.annotation, e.description, e.category.id, e.paid, e.eventDate) " +
+            "FROM Event e WHERE e.id = :eventId AND e.state = :state")
+    Optional<EventSearchDocument> findSearchDocument(@Param("eventId") Long eventId, @Param("state") EventState state);
+
+    @Query("SELECT new ru.practicum.main.event.model.EventVersion(" +
+            "e.version, e.confirmedRequests, e.views, c.version) " +
+            "FROM Event e JOIN e.category c WHERE e.id = :eventId AND e.state = :state")
+    Optional<EventVersion> findVersion(@Param("eventId") Long eventId, @Param("state") EventState state);
 }
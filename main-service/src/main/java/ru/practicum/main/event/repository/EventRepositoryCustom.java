@@ -0,0 +1,14 @@
+package ru.practicum.main.event.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.main.event.model.Event;
+import ru.practicum.main.event.model.EventShortProjection;
+
+import java.util.List;
+
+public interface EventRepositoryCustom {
+    List<Event> findWithoutCount(Specification<Event> spec, Pageable pageable);
+
+    List<EventShortProjection> findShortWithoutCount(Specification<Event> spec, Pageable pageable);
+}
@@ -0,0 +1,77 @@
+package ru.practicum.main.event.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import ru.practicum.main.category.model.Category;
+import ru.practicum.main.event.model.Event;
+import ru.practicum.main.event.model.EventShortProjection;
+import ru.practicum.main.user.model.User;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+public class EventRepositoryCustomImpl implements EventRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<Event> findWithoutCount(Specification<Event> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Event> query = cb.createQuery(Event.class);
+        Root<Event> root = query.from(Event.class);
+        query.select(root);
+        TypedQuery<Event> typedQuery = createQuery(query, root, spec, pageable)
+                .setHint(SpecHints.HINT_SPEC_LOAD_GRAPH, entityManager.getEntityGraph(Event.DETAILS_GRAPH));
+        return typedQuery.getResultList();
+    }
+
+    @Override
+    public List<EventShortProjection> findShortWithoutCount(Specification<Event> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<EventShortProjection> query = cb.createQuery(EventShortProjection.class);
+        Root<Event> root = query.from(Event.class);
+        Join<Event, Category> category = root.join("category");
+        Join<Event, User> initiator = root.join("initiator");
+        query.select(cb.construct(EventShortProjection.class,
+                root.get("id"),
+                root.get("annotation"),
+                category.get("id"),
+                category.get("name"),
+                root.get("confirmedRequests"),
+                root.get("eventDate"),
+                initiator.get("id"),
+                initiator.get("name"),
+                root.get("paid"),
+                root.get("title"),
+                root.get("views")));
+        return createQuery(query, root, spec, pageable).getResultList();
+    }
+
+    private <T> TypedQuery<T> createQuery(CriteriaQuery<T> query, Root<Event> root, Specification<Event> spec,
+                                          Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        }
+        TypedQuery<T> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult(Math.toIntExact(pageable.getOffset()));
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        return typedQuery;
+    }
+}
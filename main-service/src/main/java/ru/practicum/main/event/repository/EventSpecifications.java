@@ -1,8 +1,10 @@
 package ru.practicum.main.event.repository;
 
+import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
 import org.springframework.data.jpa.domain.Specification;
 import ru.practicum.main.event.model.Event;
+import ru.practicum.main.event.model.EventSearchMode;
 import ru.practicum.main.event.model.EventState;
 
 import java.time.LocalDateTime;
@@ -44,11 +46,16 @@ public class EventSpecifications {
             List<Long> categories,
             Boolean paid,
             LocalDateTime rangeStart,
-            LocalDateTime rangeEnd) {
+            LocalDateTime rangeEnd,
+            Boolean onlyAvailable,
+            EventSearchMode searchMode) {
         return (root, query, cb) -> {
             Predicate predicate = cb.equal(root.get("state"), EventState.PUBLISHED);
 
-            if (text != null && !text.isBlank()) {
+            if (text != null && !text.isBlank() && searchMode == EventSearchMode.FULL_TEXT) {
+                predicate = cb.and(predicate, cb.isTrue(cb.function(FullTextFunctionContributor.MATCH_FUNCTION,
+                        Boolean.class, root.get("annotation"), root.get("description"), cb.literal(text))));
+            } else if (text != null && !text.isBlank()) {
                 String pattern = "%" + text.toLowerCase() + "%";
                 Predicate annotationLike = cb.like(cb.lower(root.get("annotation")), pattern);
                 Predicate descriptionLike = cb.like(cb.lower(root.get("description")), pattern);
@@ -66,8 +73,41 @@ public class EventSpecifications {
             if (rangeEnd != null) {
                 predicate = cb.and(predicate, cb.lessThanOrEqualTo(root.get("eventDate"), rangeEnd));
             }
+            if (Boolean.TRUE.equals(onlyAvailable)) {
+                predicate = cb.and(predicate, cb.or(
+                        cb.equal(root.get("participantLimit"), 0),
+                        cb.lessThan(root.<Long>get("confirmedRequests"), root.<Integer>get("participantLimit").as(Long.class))));
+            }
 
             return predicate;
         };
     }
+
+    public static Specification<Event> orderByRelevance(String text) {
+        return (root, query, cb) -> {
+            query.orderBy(
+                    cb.desc(cb.function(FullTextFunctionContributor.RANK_FUNCTION, Float.class,
+                            root.get("annotation"), root.get("description"), cb.literal(text))),
+                    cb.asc(root.get("id")));
+            return null;
+        };
+    }
+
+    public static Specification<Event> idIn(List<Long> ids) {
+        return (root, query, cb) -> root.get("id").in(ids);
+    }
+
+    public static <T extends Comparable<? super T>> Specification<Event> seekAfter(String field, T key, Long id,
+                                                                                  boolean descending) {
+        return (root, query, cb) -> {
+            Path<T> path = root.get(field);
+            Predicate bound = descending ? cb.lessThanOrEqualTo(path, key) : cb.greaterThanOrEqualTo(path, key);
+            Predicate beyond = descending ? cb.lessThan(path, key) : cb.greaterThan(path, key);
+            return cb.and(bound, cb.or(beyond, cb.greaterThan(root.<Long>get("id"), id)));
+        };
+    }
+
+    public static Specification<Event> initiatorIs(Long userId) {
+        return (root, query, cb) -> cb.equal(root.get("initiator").get("id"), userId);
+    }
 }
@@ -0,0 +1,24 @@
+package ru.practicum.main.event.repository;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.BasicTypeRegistry;
+import org.hibernate.type.StandardBasicTypes;
+
+public class FullTextFunctionContributor implements FunctionContributor {
+
+    static final String MATCH_FUNCTION = "fts_match";
+    static final String RANK_FUNCTION = "fts_rank";
+
+    private static final String DOCUMENT = "to_tsvector('simple', ?1 || ' ' || ?2)";
+    private static final String QUERY = "plainto_tsquery('simple', ?3)";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        BasicTypeRegistry types = functionContributions.getTypeConfiguration().getBasicTypeRegistry();
+        functionContributions.getFunctionRegistry().registerPattern(MATCH_FUNCTION,
+                "(" + DOCUMENT + " @@ " + QUERY + ")", types.resolve(StandardBasicTypes.BOOLEAN));
+        functionContributions.getFunctionRegistry().registerPattern(RANK_FUNCTION,
+                "ts_rank(" + DOCUMENT + ", " + QUERY + ")", types.resolve(StandardBasicTypes.FLOAT));
+    }
+}
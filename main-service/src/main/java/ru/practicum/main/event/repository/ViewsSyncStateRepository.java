@@ -0,0 +1,7 @@
+package ru.practicum.main.event.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import ru.practicum.main.event.model.ViewsSyncState;
+
+public interface ViewsSyncStateRepository extends JpaRepository<ViewsSyncState, Integer> {
+}
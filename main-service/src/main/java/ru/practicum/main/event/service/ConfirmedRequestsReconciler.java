@@ -0,0 +1,62 @@
+package ru.practicum.main.event.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.main.event.repository.EventRepository;
+import ru.practicum.main.request.model.RequestStatus;
+import ru.practicum.main.request.repository.EventRequestCount;
+import ru.practicum.main.request.repository.RequestRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ConfirmedRequestsReconciler {
+
+    private static final int PAGE_SIZE = 500;
+
+    private final EventRepository eventRepository;
+    private final RequestRepository requestRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Scheduled(initialDelayString = "${events.confirmed-requests.reconcile-interval-ms:600000}",
+            fixedDelayString = "${events.confirmed-requests.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        int fixed = 0;
+        long afterId = 0;
+        List<EventRequestCount> counters;
+        do {
+            counters = eventRepository.findConfirmedRequestCounters(afterId, PageRequest.of(0, PAGE_SIZE));
+            if (counters.isEmpty()) {
+                break;
+            }
+            Map<Long, Long> confirmed = requestRepository.countGroupedByEventId(
+                            counters.stream().map(EventRequestCount::getEventId).toList(), RequestStatus.CONFIRMED)
+                    .stream()
+                    .collect(Collectors.toMap(EventRequestCount::getEventId, EventRequestCount::getRequestCount));
+            for (EventRequestCount counter : counters) {
+                if (!counter.getRequestCount().equals(confirmed.getOrDefault(counter.getEventId(), 0L))) {
+                    fixed += reconcile(counter.getEventId());
+                }
+            }
+            afterId = counters.get(counters.size() - 1).getEventId();
+        } while (counters.size() == PAGE_SIZE);
+        if (fixed > 0) {
+            log.warn("Confirmed requests counter drifted for {} events, recalculated from requests", fixed);
+        }
+    }
+
+    private int reconcile(Long eventId) {
+        Integer fixed = transactionTemplate.execute(status -> eventRepository.lockById(eventId)
+                .map(eventRepository::reconcileConfirmedRequests)
+                .orElse(0));
+        return fixed == null ? 0 : fixed;
+    }
+}
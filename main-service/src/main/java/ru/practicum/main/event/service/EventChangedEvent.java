@@ -0,0 +1,11 @@
+package ru.practicum.main.event.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class EventChangedEvent {
+
+    private final Long eventId;
+}
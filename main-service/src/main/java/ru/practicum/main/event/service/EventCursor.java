@@ -0,0 +1,57 @@
+package ru.practicum.main.event.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.main.event.model.Event;
+import ru.practicum.main.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+@Getter
+@AllArgsConstructor
+class EventCursor {
+
+    enum Key {
+        EVENT_DATE,
+        VIEWS
+    }
+
+    private static final String SEPARATOR = "|";
+
+    private final Key key;
+    private final LocalDateTime eventDate;
+    private final Long views;
+    private final Long id;
+
+    static EventCursor after(Key key, Event event) {
+        return new EventCursor(key, event.getEventDate(), event.getViews(), event.getId());
+    }
+
+    static EventCursor decode(String token, Key expectedKey) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8)
+                    .split("\\" + SEPARATOR);
+            if (parts.length != 3 || Key.valueOf(parts[0]) != expectedKey) {
+                throw new BadRequestException("Cursor does not match the requested sort");
+            }
+            Long id = Long.parseLong(parts[2]);
+            return expectedKey == Key.VIEWS
+                    ? new EventCursor(expectedKey, null, Long.parseLong(parts[1]), id)
+                    : new EventCursor(expectedKey, LocalDateTime.parse(parts[1]), null, id);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Malformed cursor");
+        }
+    }
+
+    String encode() {
+        String sortValue = key == Key.VIEWS ? String.valueOf(views) : eventDate.toString();
+        String raw = key.name() + SEPARATOR + sortValue + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
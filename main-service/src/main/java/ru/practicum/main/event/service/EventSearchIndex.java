@@ -0,0 +1,273 @@
+package ru.practicum.main.event.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.main.event.model.EventSearchDocument;
+import ru.practicum.main.event.model.EventState;
+import ru.practicum.main.event.repository.EventRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "events.search.mode", havingValue = "IN_MEMORY")
+public class EventSearchIndex {
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final long[] NO_POSTINGS = new long[0];
+    private static final int MIN_PREFIX_LENGTH = 3;
+
+    private final EventRepository eventRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private NavigableMap<String, long[]> postings = new TreeMap<>();
+    private Map<Long, IndexedEvent> events = new HashMap<>();
+    private final Set<Long> changedBeforeReady = new HashSet<>();
+    private boolean ready;
+
+    public boolean isReady() {
+        lock.readLock().lock();
+        try {
+            return ready;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long[] search(String text, List<Long> categories, Boolean paid,
+                         LocalDateTime rangeStart, LocalDateTime rangeEnd) {
+        Set<String> tokens = tokenize(text);
+        if (tokens.isEmpty()) {
+            return NO_POSTINGS;
+        }
+        lock.readLock().lock();
+        try {
+            long[] matches = null;
+            for (String token : tokens) {
+                long[] tokenMatches = prefixPostings(token);
+                matches = matches == null ? tokenMatches : intersect(matches, tokenMatches);
+                if (matches.length == 0) {
+                    return NO_POSTINGS;
+                }
+            }
+            return Arrays.stream(matches)
+                    .mapToObj(events::get)
+                    .filter(event -> categories == null || categories.isEmpty()
+                            || categories.contains(event.categoryId))
+                    .filter(event -> paid == null || paid == event.paid)
+                    .filter(event -> rangeStart == null || !event.eventDate.isBefore(rangeStart))
+                    .filter(event -> rangeEnd == null || !event.eventDate.isAfter(rangeEnd))
+                    .sorted(Comparator.comparing((IndexedEvent event) -> event.eventDate)
+                            .thenComparingLong(event -> event.id))
+                    .mapToLong(event -> event.id)
+                    .toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        Map<String, PostingBuffer> buffers = new HashMap<>();
+        Map<Long, IndexedEvent> newEvents = new HashMap<>();
+        try (Stream<EventSearchDocument> documents = eventRepository.streamSearchDocuments(EventState.PUBLISHED)) {
+            documents.forEach(document -> {
+                IndexedEvent event = toIndexedEvent(document);
+                for (String term : event.terms) {
+                    buffers.computeIfAbsent(term, key -> new PostingBuffer()).add(event.id);
+                }
+                newEvents.put(event.id, event);
+            });
+        }
+        NavigableMap<String, long[]> newPostings = new TreeMap<>();
+        buffers.forEach((term, buffer) -> newPostings.put(term, buffer.toSortedArray()));
+        List<Long> pending;
+        lock.writeLock().lock();
+        try {
+            postings = newPostings;
+            events = newEvents;
+            ready = true;
+            pending = new ArrayList<>(changedBeforeReady);
+            changedBeforeReady.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        pending.forEach(this::refresh);
+        log.info("Event search index built: {} events, {} terms", newEvents.size(), newPostings.size());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onEventChanged(EventChangedEvent changed) {
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                changedBeforeReady.add(changed.getEventId());
+                return;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        refresh(changed.getEventId());
+    }
+
+    private void refresh(Long eventId) {
+        EventSearchDocument document = eventRepository.findSearchDocument(eventId, EventState.PUBLISHED).orElse(null);
+        lock.writeLock().lock();
+        try {
+            remove(eventId);
+            if (document != null) {
+                index(document, postings, events);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void remove(Long eventId) {
+        IndexedEvent event = events.remove(eventId);
+        if (event == null) {
+            return;
+        }
+        for (String term : event.terms) {
+            long[] ids = postings.get(term);
+            int position = ids == null ? -1 : Arrays.binarySearch(ids, eventId);
+            if (position < 0) {
+                continue;
+            }
+            if (ids.length == 1) {
+                postings.remove(term);
+            } else {
+                long[] updated = new long[ids.length - 1];
+                System.arraycopy(ids, 0, updated, 0, position);
+                System.arraycopy(ids, position + 1, updated, position, ids.length - position - 1);
+                postings.put(term, updated);
+            }
+        }
+    }
+
+    private static IndexedEvent toIndexedEvent(EventSearchDocument document) {
+        Set<String> terms = tokenize(document.getTitle());
+        terms.addAll(tokenize(document.getAnnotation()));
+        terms.addAll(tokenize(document.getDescription()));
+        return new IndexedEvent(document.getId(), document.getCategoryId(), Boolean.TRUE.equals(document.getPaid()),
+                document.getEventDate(), terms.toArray(String[]::new));
+    }
+
+    private static void index(EventSearchDocument document, NavigableMap<String, long[]> postings,
+                              Map<Long, IndexedEvent> events) {
+        IndexedEvent event = toIndexedEvent(document);
+        long id = event.id;
+        for (String term : event.terms) {
+            long[] ids = postings.getOrDefault(term, NO_POSTINGS);
+            int position = Arrays.binarySearch(ids, id);
+            if (position >= 0) {
+                continue;
+            }
+            int insertAt = -position - 1;
+            long[] updated = new long[ids.length + 1];
+            System.arraycopy(ids, 0, updated, 0, insertAt);
+            updated[insertAt] = id;
+            System.arraycopy(ids, insertAt, updated, insertAt + 1, ids.length - insertAt);
+            postings.put(term, updated);
+        }
+        events.put(id, event);
+    }
+
+    private long[] prefixPostings(String prefix) {
+        if (prefix.length() < MIN_PREFIX_LENGTH) {
+            return postings.getOrDefault(prefix, NO_POSTINGS);
+        }
+        NavigableMap<String, long[]> matching = postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        if (matching.size() == 1) {
+            return matching.firstEntry().getValue();
+        }
+        return matching.values().stream()
+                .flatMapToLong(Arrays::stream)
+                .sorted()
+                .distinct()
+                .toArray();
+    }
+
+    private static long[] intersect(long[] left, long[] right) {
+        long[] result = new long[Math.min(left.length, right.length)];
+        int i = 0;
+        int j = 0;
+        int size = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (left[i] > right[j]) {
+                j++;
+            } else {
+                result[size++] = left[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase())) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static class PostingBuffer {
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        long[] toSortedArray() {
+            long[] sorted = Arrays.copyOf(ids, size);
+            Arrays.sort(sorted);
+            return Arrays.stream(sorted).distinct().toArray();
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static class IndexedEvent {
+        private final long id;
+        private final Long categoryId;
+        private final boolean paid;
+        private final LocalDateTime eventDate;
+        private final String[] terms;
+    }
+}
@@ -8,22 +8,26 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 public interface EventService {
-    List<EventFullDto> searchAdminEvents(List<Long> users, List<EventState> states, List<Long> categories,
-                                         LocalDateTime rangeStart, LocalDateTime rangeEnd, int from, int size);
+    EventPage<EventFullDto> searchAdminEvents(List<Long> users, List<EventState> states, List<Long> categories,
+                                              LocalDateTime rangeStart, LocalDateTime rangeEnd, String cursor,
+                                              int from, int size);
 
     EventFullDto updateEventByAdmin(Long eventId, UpdateEventAdminRequest request);
 
     EventFullDto createEvent(Long userId, NewEventDto dto);
 
-    List<EventShortDto> getUserEvents(Long userId, int from, int size);
+    EventPage<EventShortDto> getUserEvents(Long userId, String cursor, int from, int size);
 
     EventFullDto getUserEvent(Long userId, Long eventId);
 
     EventFullDto updateUserEvent(Long userId, Long eventId, UpdateEventUserRequest request);
 
-    List<EventShortDto> searchPublicEvents(String text, List<Long> categories, Boolean paid,
-                                           LocalDateTime rangeStart, LocalDateTime rangeEnd,
-                                           Boolean onlyAvailable, String sort, int from, int size, HttpServletRequest request);
+    EventPage<EventShortDto> searchPublicEvents(String text, List<Long> categories, Boolean paid,
+                                                LocalDateTime rangeStart, LocalDateTime rangeEnd,
+                                                Boolean onlyAvailable, String sort, String cursor, int from, int size,
+                                                HttpServletRequest request);
 
     EventFullDto getPublicEvent(Long eventId, HttpServletRequest request);
+
+    String getPublicEventTag(Long eventId);
 }
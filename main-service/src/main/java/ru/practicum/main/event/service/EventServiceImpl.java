@@ -2,18 +2,23 @@ package ru.practicum.main.event.service;
 
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
-import org.springframework.http.ResponseEntity;
+import org.springframework.data.repository.query.FluentQuery;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.main.category.model.Category;
 import ru.practicum.main.category.repository.CategoryRepository;
+import ru.practicum.main.etag.ETags;
 import ru.practicum.main.event.dto.*;
 import ru.practicum.main.event.mapper.EventMapper;
 import ru.practicum.main.event.model.Event;
+import ru.practicum.main.event.model.EventSearchMode;
+import ru.practicum.main.event.model.EventShortProjection;
 import ru.practicum.main.event.model.EventState;
 import ru.practicum.main.event.repository.EventRepository;
 import ru.practicum.main.event.repository.EventSpecifications;
@@ -23,15 +28,16 @@ import ru.practicum.main.exception.NotFoundException;
 import ru.practicum.main.location.mapper.LocationMapper;
 import ru.practicum.main.location.model.Location;
 import ru.practicum.main.location.repository.LocationRepository;
-import ru.practicum.main.request.model.RequestStatus;
-import ru.practicum.main.request.repository.RequestRepository;
+import ru.practicum.main.pagination.OffsetPageRequest;
 import ru.practicum.main.user.model.User;
 import ru.practicum.main.user.repository.UserRepository;
-import ru.practicum.stats.client.StatsClient;
-import ru.practicum.stats.dto.StatsDto;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Transactional
@@ -39,33 +45,46 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class EventServiceImpl implements EventService {
 
+    private static final int MAX_INDEXED_CANDIDATES = 10_000;
+    private static final Sort EVENT_DATE_SORT = Sort.by(Sort.Direction.ASC, "eventDate")
+            .and(Sort.by(Sort.Direction.ASC, "id"));
+    private static final Sort VIEWS_SORT = Sort.by(Sort.Direction.DESC, "views")
+            .and(Sort.by(Sort.Direction.ASC, "id"));
+
     private final EventRepository eventRepository;
     private final UserRepository userRepository;
     private final CategoryRepository categoryRepository;
     private final LocationRepository locationRepository;
-    private final RequestRepository requestRepository;
     private final EventMapper eventMapper;
     private final LocationMapper locationMapper;
-    private final StatsClient statsClient;
+    private final EventStatsService eventStatsService;
+    private final ObjectProvider<EventSearchIndex> eventSearchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${events.search.mode:LIKE}")
+    private EventSearchMode searchMode;
 
     @Transactional(readOnly = true)
     @Override
-    public List<EventFullDto> searchAdminEvents(List<Long> users, List<EventState> states, List<Long> categories,
-                                                LocalDateTime rangeStart, LocalDateTime rangeEnd, int from, int size) {
+    public EventPage<EventFullDto> searchAdminEvents(List<Long> users, List<EventState> states,
+                                                     List<Long> categories, LocalDateTime rangeStart,
+                                                     LocalDateTime rangeEnd, String cursor, int from, int size) {
         if (rangeStart != null && rangeEnd != null && rangeEnd.isBefore(rangeStart)) {
             throw new BadRequestException("rangeEnd must not be before rangeStart");
         }
-        Pageable pageable = PageRequest.of(from / size, size);
         Specification<Event> spec = EventSpecifications.adminFilter(users, states, categories, rangeStart, rangeEnd);
-        return eventRepository.findAll(spec, pageable).stream()
-                .map(this::toFullDtoWithStats)
-                .collect(Collectors.toList());
+        if (cursor != null) {
+            EventPage<Event> page = seek(spec, EventCursor.Key.EVENT_DATE, cursor, size, true);
+            return new EventPage<>(toFullDtosWithStats(page.getItems()), page.getNextCursor());
+        }
+        Pageable pageable = OffsetPageRequest.of(from, size);
+        return new EventPage<>(toFullDtosWithStats(eventRepository.findWithoutCount(spec, pageable)), null);
     }
 
     @Transactional(rollbackFor = {BadRequestException.class, ConflictException.class, NotFoundException.class})
     @Override
     public EventFullDto updateEventByAdmin(Long eventId, UpdateEventAdminRequest request) {
-        Event event = eventRepository.findById(eventId)
+        Event event = eventRepository.findDetailedById(eventId)
                 .orElseThrow(() -> new NotFoundException("Event not found"));
         if (request.getTitle() != null) event.setTitle(request.getTitle());
         if (request.getAnnotation() != null) event.setAnnotation(request.getAnnotation());
@@ -91,6 +110,7 @@ public class EventServiceImpl implements EventService {
         if (request.getPaid() != null) event.setPaid(request.getPaid());
         if (request.getParticipantLimit() != null) event.setParticipantLimit(request.getParticipantLimit());
         if (request.getRequestModeration() != null) event.setRequestModeration(request.getRequestModeration());
+        if (request.getWaitlist() != null) event.setWaitlist(request.getWaitlist());
         if (request.getStateAction() != null) {
             switch (request.getStateAction()) {
                 case PUBLISH_EVENT:
@@ -108,7 +128,9 @@ public class EventServiceImpl implements EventService {
                     break;
             }
         }
-        return toFullDtoWithStats(eventRepository.save(event));
+        Event saved = eventRepository.save(event);
+        eventPublisher.publishEvent(new EventChangedEvent(saved.getId()));
+        return toFullDtoWithStats(saved);
     }
 
     @Transactional(rollbackFor = {NotFoundException.class})
@@ -131,12 +153,15 @@ public class EventServiceImpl implements EventService {
 
     @Transactional(readOnly = true)
     @Override
-    public List<EventShortDto> getUserEvents(Long userId, int from, int size) {
-        PageRequest pageRequest = PageRequest.of(from / size, size);
-        return eventRepository.findByInitiatorId(userId, pageRequest)
-                .stream()
-                .map(this::toShortDtoWithStats)
-                .collect(Collectors.toList());
+    public EventPage<EventShortDto> getUserEvents(Long userId, String cursor, int from, int size) {
+        if (cursor != null) {
+            EventPage<Event> page = seek(EventSpecifications.initiatorIs(userId), EventCursor.Key.EVENT_DATE, cursor,
+                    size, false);
+            return new EventPage<>(toShortDtosWithStats(page.getItems()), page.getNextCursor());
+        }
+        Pageable pageable = OffsetPageRequest.of(from, size);
+        return new EventPage<>(toShortDtosFromProjections(
+                eventRepository.findShortWithoutCount(EventSpecifications.initiatorIs(userId), pageable)), null);
     }
 
     @Transactional(readOnly = true)
@@ -176,6 +201,7 @@ public class EventServiceImpl implements EventService {
         if (request.getPaid() != null) event.setPaid(request.getPaid());
         if (request.getParticipantLimit() != null) event.setParticipantLimit(request.getParticipantLimit());
         if (request.getRequestModeration() != null) event.setRequestModeration(request.getRequestModeration());
+        if (request.getWaitlist() != null) event.setWaitlist(request.getWaitlist());
         if (request.getStateAction() != null) {
             switch (request.getStateAction()) {
                 case SEND_TO_REVIEW:
@@ -186,26 +212,110 @@ public class EventServiceImpl implements EventService {
                     break;
             }
         }
-        return toFullDtoWithStats(eventRepository.save(event));
+        Event saved = eventRepository.save(event);
+        eventPublisher.publishEvent(new EventChangedEvent(saved.getId()));
+        return toFullDtoWithStats(saved);
     }
 
     @Transactional(readOnly = true)
     @Override
-    public List<EventShortDto> searchPublicEvents(String text, List<Long> categories, Boolean paid,
-                                                  LocalDateTime rangeStart, LocalDateTime rangeEnd,
-                                                  Boolean onlyAvailable, String sort, int from, int size, HttpServletRequest request) {
+    public EventPage<EventShortDto> searchPublicEvents(String text, List<Long> categories, Boolean paid,
+                                                       LocalDateTime rangeStart, LocalDateTime rangeEnd,
+                                                       Boolean onlyAvailable, String sort, String cursor, int from,
+                                                       int size, HttpServletRequest request) {
         if (rangeStart != null && rangeEnd != null && rangeEnd.isBefore(rangeStart)) {
             throw new BadRequestException("rangeEnd must not be before rangeStart");
         }
-        Sort sortOrder = "VIEWS".equalsIgnoreCase(sort) ? Sort.by(Sort.Direction.DESC, "views") : Sort.by(Sort.Direction.ASC, "eventDate");
-        Pageable pageable = PageRequest.of(from / size, size, sortOrder);
-        Specification<Event> spec = EventSpecifications.publicFilter(text, categories, paid, rangeStart, rangeEnd);
+        boolean byRelevance = "RELEVANCE".equalsIgnoreCase(sort) && text != null && !text.isBlank()
+                && searchMode == EventSearchMode.FULL_TEXT;
+        if (cursor != null) {
+            if (byRelevance) {
+                throw new BadRequestException("Cursor pagination is not supported for RELEVANCE sort");
+            }
+            Specification<Event> spec = EventSpecifications.publicFilter(text, categories, paid, rangeStart,
+                    rangeEnd, onlyAvailable, searchMode);
+            EventCursor.Key key = "VIEWS".equalsIgnoreCase(sort) ? EventCursor.Key.VIEWS : EventCursor.Key.EVENT_DATE;
+            EventPage<Event> page = seek(spec, key, cursor, size, false);
+            return new EventPage<>(toShortDtosWithStats(page.getItems()), page.getNextCursor());
+        }
+        EventSearchIndex index = searchMode == EventSearchMode.IN_MEMORY ? eventSearchIndex.getIfAvailable() : null;
+        if (index != null && index.isReady() && text != null && !text.isBlank()) {
+            List<EventShortDto> result = searchIndexedEvents(index, text, categories, paid, rangeStart, rangeEnd,
+                    onlyAvailable, sort, from, size);
+            if (result != null) {
+                return new EventPage<>(result, null);
+            }
+        }
+        Sort sortOrder;
+        if (byRelevance) {
+            sortOrder = Sort.unsorted();
+        } else if ("VIEWS".equalsIgnoreCase(sort)) {
+            sortOrder = VIEWS_SORT;
+        } else {
+            sortOrder = EVENT_DATE_SORT;
+        }
+        Pageable pageable = OffsetPageRequest.of(from, size, sortOrder);
+        Specification<Event> spec = EventSpecifications.publicFilter(text, categories, paid, rangeStart, rangeEnd,
+                onlyAvailable, searchMode);
+        if (byRelevance) {
+            spec = spec.and(EventSpecifications.orderByRelevance(text));
+        }
 
-        List<Event> events = eventRepository.findAll(spec, pageable).getContent();
+        List<EventShortProjection> events = eventRepository.findShortWithoutCount(spec, pageable);
 
-        return events.stream()
-                .map(this::toShortDtoWithStats)
-                .collect(Collectors.toList());
+        return new EventPage<>(toShortDtosFromProjections(events), null);
+    }
+
+    private List<EventShortDto> searchIndexedEvents(EventSearchIndex index, String text, List<Long> categories,
+                                                    Boolean paid, LocalDateTime rangeStart, LocalDateTime rangeEnd,
+                                                    Boolean onlyAvailable, String sort, int from, int size) {
+        long[] matches = index.search(text, categories, paid, rangeStart, rangeEnd);
+        if (!"VIEWS".equalsIgnoreCase(sort) && !Boolean.TRUE.equals(onlyAvailable)) {
+            List<Long> pageIds = Arrays.stream(matches)
+                    .skip(from)
+                    .limit(size)
+                    .boxed()
+                    .toList();
+            if (pageIds.isEmpty()) {
+                return List.of();
+            }
+            Map<Long, Event> byId = eventRepository.findByIdIn(pageIds).stream()
+                    .collect(Collectors.toMap(Event::getId, Function.identity()));
+            return toShortDtosWithStats(pageIds.stream()
+                    .map(byId::get)
+                    .filter(Objects::nonNull)
+                    .toList());
+        }
+        if (matches.length > MAX_INDEXED_CANDIDATES) {
+            return null;
+        }
+        if (matches.length == 0) {
+            return List.of();
+        }
+        Sort sortOrder = "VIEWS".equalsIgnoreCase(sort) ? VIEWS_SORT : EVENT_DATE_SORT;
+        Specification<Event> spec = EventSpecifications.publicFilter(null, null, null, null, null,
+                        onlyAvailable, searchMode)
+                .and(EventSpecifications.idIn(Arrays.stream(matches).boxed().toList()));
+        return toShortDtosFromProjections(eventRepository.findShortWithoutCount(spec,
+                OffsetPageRequest.of(from, size, sortOrder)));
+    }
+
+    private EventPage<Event> seek(Specification<Event> spec, EventCursor.Key key, String cursor, int size,
+                                  boolean detailed) {
+        EventCursor after = EventCursor.decode(cursor, key);
+        boolean byViews = key == EventCursor.Key.VIEWS;
+        if (after != null) {
+            spec = spec.and(byViews
+                    ? EventSpecifications.seekAfter("views", after.getViews(), after.getId(), true)
+                    : EventSpecifications.seekAfter("eventDate", after.getEventDate(), after.getId(), false));
+        }
+        Sort sortOrder = byViews ? VIEWS_SORT : EVENT_DATE_SORT;
+        List<Event> events = eventRepository.findBy(spec, query -> {
+            FluentQuery.FetchableFluentQuery<Event> sorted = query.sortBy(sortOrder).limit(size);
+            return detailed ? sorted.project("category", "initiator", "location").all() : sorted.all();
+        });
+        String nextCursor = events.size() < size ? null : EventCursor.after(key, events.get(events.size() - 1)).encode();
+        return new EventPage<>(events, nextCursor);
     }
 
     @Transactional(readOnly = true)
@@ -216,28 +326,38 @@ public class EventServiceImpl implements EventService {
         return toFullDtoWithStats(event);
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public String getPublicEventTag(Long eventId) {
+        if (!eventStatsService.isSnapshotFresh()) {
+            return null;
+        }
+        return eventRepository.findVersion(eventId, EventState.PUBLISHED)
+                .map(version -> ETags.of("event-" + eventId, version.toList()))
+                .orElse(null);
+    }
+
     private EventFullDto toFullDtoWithStats(Event event) {
-        long confirmedRequests = requestRepository.countByEventIdAndStatus(event.getId(), RequestStatus.CONFIRMED);
-        long views = getEventViews(event.getId());
-        return eventMapper.toEventFullDto(event, confirmedRequests, views);
+        long views = eventStatsService.getViews(List.of(event)).getOrDefault(event.getId(), 0L);
+        return eventMapper.toEventFullDto(event, views);
     }
 
-    private EventShortDto toShortDtoWithStats(Event event) {
-        long confirmedRequests = requestRepository.countByEventIdAndStatus(event.getId(), RequestStatus.CONFIRMED);
-        long views = getEventViews(event.getId());
-        return eventMapper.toEventShortDto(event, confirmedRequests, views);
+    private List<EventFullDto> toFullDtosWithStats(List<Event> events) {
+        Map<Long, Long> views = eventStatsService.getViews(events);
+        return events.stream()
+                .map(event -> eventMapper.toEventFullDto(event, views.getOrDefault(event.getId(), 0L)))
+                .toList();
     }
 
-    private long getEventViews(Long eventId) {
-        String uri = "/events/" + eventId;
-        LocalDateTime start = LocalDateTime.of(0, 1, 1, 0, 0);
-        LocalDateTime end = LocalDateTime.now();
-        ResponseEntity<List<StatsDto>> response = statsClient.getStats(start, end, List.of(uri), true);
-        List<StatsDto> stats = response.getBody();
-        if (stats != null && !stats.isEmpty()) {
-            return stats.getFirst().getHits();
-        } else {
-            return 0L;
-        }
+    private List<EventShortDto> toShortDtosWithStats(List<Event> events) {
+        return eventMapper.toEventShortDtos(events, eventStatsService.getViews(events));
+    }
+
+    private List<EventShortDto> toShortDtosFromProjections(List<EventShortProjection> events) {
+        Map<Long, Long> views = eventStatsService.resolveViews(events.stream()
+                .collect(Collectors.toMap(EventShortProjection::getId, EventShortProjection::getViews, Math::max)));
+        return events.stream()
+                .map(event -> eventMapper.toEventShortDto(event, views.getOrDefault(event.getId(), 0L)))
+                .toList();
     }
 }
@@ -0,0 +1,18 @@
+package ru.practicum.main.event.service;
+
+import ru.practicum.main.event.model.Event;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface EventStatsService {
+    Map<Long, Long> getViews(Collection<Event> events);
+
+    Map<Long, Long> resolveViews(Map<Long, Long> storedViews);
+
+    Map<Long, Long> getLiveViews(Collection<Long> eventIds);
+
+    void syncViews();
+
+    boolean isSnapshotFresh();
+}
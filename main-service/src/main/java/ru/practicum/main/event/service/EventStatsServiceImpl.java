@@ -0,0 +1,163 @@
+package ru.practicum.main.event.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestClientException;
+import ru.practicum.main.event.model.Event;
+import ru.practicum.main.event.model.ViewsSyncState;
+import ru.practicum.main.event.repository.EventRepository;
+import ru.practicum.main.event.repository.ViewsSyncStateRepository;
+import ru.practicum.stats.client.StatsClient;
+import ru.practicum.stats.dto.StatsDto;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EventStatsServiceImpl implements EventStatsService {
+
+    private static final String EVENT_URI_PREFIX = "/events/";
+    private static final LocalDateTime STATS_START = LocalDateTime.of(0, 1, 1, 0, 0);
+    private static final int URIS_PER_CALL = 100;
+
+    private final StatsClient statsClient;
+    private final EventRepository eventRepository;
+    private final ViewsSyncStateRepository viewsSyncStateRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${events.views-sync.max-staleness-ms:60000}")
+    private long maxStalenessMs;
+
+    @Value("${events.views-sync.overlap-ms:60000}")
+    private long overlapMs;
+
+    private volatile LocalDateTime lastSyncedAt;
+
+    @Override
+    public Map<Long, Long> getViews(Collection<Event> events) {
+        if (events == null || events.isEmpty()) {
+            return new HashMap<>();
+        }
+        return resolveViews(events.stream()
+                .collect(Collectors.toMap(Event::getId, Event::getViews, Math::max)));
+    }
+
+    @Override
+    public Map<Long, Long> resolveViews(Map<Long, Long> storedViews) {
+        if (storedViews.isEmpty() || isSnapshotFresh()) {
+            return storedViews;
+        }
+        Map<Long, Long> views;
+        try {
+            views = getLiveViews(storedViews.keySet());
+        } catch (RestClientException e) {
+            log.warn("Stats-server unavailable, serving stored views: {}", e.getMessage());
+            return storedViews;
+        }
+        storedViews.forEach((id, stored) -> views.merge(id, stored, Math::max));
+        return views;
+    }
+
+    @Override
+    public Map<Long, Long> getLiveViews(Collection<Long> eventIds) {
+        Map<Long, Long> views = new HashMap<>();
+        if (eventIds == null || eventIds.isEmpty()) {
+            return views;
+        }
+        List<String> uris = eventIds.stream()
+                .distinct()
+                .map(id -> EVENT_URI_PREFIX + id)
+                .toList();
+        LocalDateTime end = LocalDateTime.now();
+        for (int i = 0; i < uris.size(); i += URIS_PER_CALL) {
+            List<String> chunk = new ArrayList<>(uris.subList(i, Math.min(i + URIS_PER_CALL, uris.size())));
+            List<StatsDto> stats = statsClient.getStats(STATS_START, end, chunk, true).getBody();
+            if (stats == null) {
+                continue;
+            }
+            for (StatsDto dto : stats) {
+                Long eventId = toEventId(dto.getUri());
+                if (eventId != null && dto.getHits() != null) {
+                    views.merge(eventId, dto.getHits(), Math::max);
+                }
+            }
+        }
+        return views;
+    }
+
+    @Scheduled(fixedDelayString = "${events.views-sync.interval-ms:10000}")
+    @Override
+    public void syncViews() {
+        LocalDateTime now = LocalDateTime.now();
+        ViewsSyncState state = viewsSyncStateRepository.findById(ViewsSyncState.SINGLETON_ID)
+                .orElseGet(() -> ViewsSyncState.builder().id(ViewsSyncState.SINGLETON_ID).syncedTo(STATS_START).build());
+        LocalDateTime from = state.getSyncedTo().minus(overlapMs, ChronoUnit.MILLIS);
+        if (from.isBefore(STATS_START)) {
+            from = STATS_START;
+        }
+
+        ResponseEntity<List<StatsDto>> changed = statsClient.getStats(from, now, null, false);
+        if (!changed.getStatusCode().is2xxSuccessful() || changed.getBody() == null) {
+            log.warn("Views sync skipped, stats-server responded with {}", changed.getStatusCode());
+            return;
+        }
+        Set<Long> eventIds = changed.getBody().stream()
+                .map(dto -> toEventId(dto.getUri()))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        Map<Long, Long> views = getLiveViews(eventIds);
+        boolean complete = views.keySet().containsAll(eventIds);
+        Integer updated = transactionTemplate.execute(status -> {
+            int rows = 0;
+            for (Map.Entry<Long, Long> entry : views.entrySet()) {
+                rows += eventRepository.updateViews(entry.getKey(), entry.getValue());
+            }
+            if (complete) {
+                state.setSyncedTo(now);
+                viewsSyncStateRepository.save(state);
+            }
+            return rows;
+        });
+        if (!complete) {
+            log.warn("Views sync incomplete, {} of {} events fetched; watermark kept at {}", views.size(),
+                    eventIds.size(), state.getSyncedTo());
+            return;
+        }
+        lastSyncedAt = now;
+        log.debug("Views synced up to {}: {} events changed, {} rows updated", now, eventIds.size(), updated);
+    }
+
+    @Override
+    public boolean isSnapshotFresh() {
+        LocalDateTime syncedAt = lastSyncedAt;
+        return syncedAt != null && syncedAt.plus(maxStalenessMs, ChronoUnit.MILLIS).isAfter(LocalDateTime.now());
+    }
+
+    private Long toEventId(String uri) {
+        if (uri == null || !uri.startsWith(EVENT_URI_PREFIX)) {
+            return null;
+        }
+        try {
+            return Long.parseLong(uri.substring(EVENT_URI_PREFIX.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package ru.practicum.main.request.controller;
 
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.validation.annotation.Validated;
@@ -15,14 +16,17 @@ import java.util.List;
 @RequestMapping("/users/{userId}/requests")
 @RequiredArgsConstructor
 public class PrivateRequestController {
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     private final RequestService requestService;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public ParticipationRequestDto createRequest(
             @PathVariable Long userId,
-            @RequestParam @NotNull Long eventId) {
-        return requestService.createRequest(userId, eventId);
+            @RequestParam @NotNull Long eventId,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) @Size(max = 64) String idempotencyKey) {
+        return requestService.createRequest(userId, eventId, idempotencyKey);
     }
 
     @GetMapping
@@ -36,4 +36,10 @@ public class Request {
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, length = 10)
     private RequestStatus status;
+
+    @Column(name = "queue_position")
+    private Long queuePosition;
+
+    @Column(name = "idempotency_key", length = 64)
+    private String idempotencyKey;
 }
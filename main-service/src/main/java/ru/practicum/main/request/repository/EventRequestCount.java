@@ -0,0 +1,7 @@
+package ru.practicum.main.request.repository;
+
+public interface EventRequestCount {
+    Long getEventId();
+
+    Long getRequestCount();
+}
@@ -0,0 +1,122 @@
+package ru.practicum.main.request.repository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Repository;
+import ru.practicum.main.request.dto.ParticipationRequestDto;
+import ru.practicum.main.request.model.RequestStatus;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.Optional;
+
+@Repository
+@RequiredArgsConstructor
+public class RequestIntakeRepository {
+
+    private static final String INSERT = "WITH target AS (" +
+            "SELECT id, state, initiator_id, participant_limit, confirmed_requests, request_moderation, waitlist " +
+            "FROM events WHERE id = :eventId), " +
+            "requester AS (SELECT id FROM users WHERE id = :userId), " +
+            "existing AS (SELECT id, created_on, status, idempotency_key FROM requests " +
+            "WHERE event_id = :eventId AND requester_id = :userId), " +
+            "inserted AS (" +
+            "INSERT INTO requests (created_on, event_id, requester_id, status, idempotency_key) " +
+            "SELECT :created, e.id, u.id, " +
+            "CASE WHEN (e.participant_limit = 0 OR NOT e.request_moderation) " +
+            "AND (e.participant_limit = 0 OR e.confirmed_requests < e.participant_limit) " +
+            "THEN 'CONFIRMED' ELSE 'PENDING' END, :idempotencyKey " +
+            "FROM target e, requester u " +
+            "WHERE e.state = 'PUBLISHED' AND e.initiator_id <> u.id " +
+            "AND (e.waitlist OR e.participant_limit = 0 OR e.confirmed_requests < e.participant_limit) " +
+            "ON CONFLICT (event_id, requester_id) DO NOTHING " +
+            "RETURNING id, created_on, status) " +
+            "SELECT e.state, e.initiator_id = :userId AS own_event, e.waitlist, " +
+            "(e.participant_limit = 0 OR NOT e.request_moderation) AS auto_confirm, " +
+            "(e.participant_limit <> 0 AND e.confirmed_requests >= e.participant_limit) AS full_event, " +
+            "u.id IS NOT NULL AS user_found, " +
+            "i.id, i.created_on, i.status, " +
+            "x.id AS existing_id, x.created_on AS existing_created_on, x.status AS existing_status, " +
+            "x.idempotency_key AS existing_key " +
+            "FROM target e " +
+            "LEFT JOIN requester u ON TRUE " +
+            "LEFT JOIN inserted i ON TRUE " +
+            "LEFT JOIN existing x ON TRUE";
+    private static final String REQUEUE = "UPDATE requests SET status = 'PENDING', queue_position = :position " +
+            "WHERE id = :id";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private boolean supported;
+
+    @PostConstruct
+    void detectSupport() throws MetaDataAccessException {
+        String product = JdbcUtils.extractDatabaseMetaData(Objects.requireNonNull(
+                jdbcTemplate.getJdbcTemplate().getDataSource()), DatabaseMetaData::getDatabaseProductName);
+        supported = "PostgreSQL".equals(product);
+    }
+
+    public boolean isSupported() {
+        return supported;
+    }
+
+    public Optional<Intake> insert(Long userId, Long eventId, String idempotencyKey, LocalDateTime created) {
+        MapSqlParameterSource params = new MapSqlParameterSource("userId", userId)
+                .addValue("eventId", eventId)
+                .addValue("idempotencyKey", idempotencyKey)
+                .addValue("created", created);
+        return jdbcTemplate.query(INSERT, params, (rs, rowNum) -> new Intake(
+                toRequest(rs, "id", "created_on", "status", eventId, userId),
+                toRequest(rs, "existing_id", "existing_created_on", "existing_status", eventId, userId),
+                rs.getString("existing_key"),
+                rs.getBoolean("user_found"),
+                rs.getBoolean("own_event"),
+                "PUBLISHED".equals(rs.getString("state")),
+                rs.getBoolean("full_event"),
+                rs.getBoolean("waitlist"),
+                rs.getBoolean("auto_confirm"))).stream().findFirst();
+    }
+
+    private static ParticipationRequestDto toRequest(ResultSet rs, String id, String created, String status,
+                                                     Long eventId, Long userId) throws SQLException {
+        long requestId = rs.getLong(id);
+        if (rs.wasNull()) {
+            return null;
+        }
+        return ParticipationRequestDto.builder()
+                .id(requestId)
+                .created(rs.getObject(created, LocalDateTime.class))
+                .event(eventId)
+                .requester(userId)
+                .status(RequestStatus.valueOf(rs.getString(status)))
+                .build();
+    }
+
+    public void requeue(Long requestId, long position) {
+        jdbcTemplate.update(REQUEUE, new MapSqlParameterSource("id", requestId).addValue("position", position));
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Intake {
+
+        private final ParticipationRequestDto request;
+        private final ParticipationRequestDto existing;
+        private final String existingKey;
+        private final boolean userFound;
+        private final boolean ownEvent;
+        private final boolean published;
+        private final boolean full;
+        private final boolean waitlist;
+        private final boolean autoConfirm;
+    }
+}
@@ -1,10 +1,14 @@
 package ru.practicum.main.request.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.main.request.model.Request;
 import ru.practicum.main.request.model.RequestStatus;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface RequestRepository extends JpaRepository<Request, Long> {
     List<Request> findByRequesterId(Long userId);
@@ -13,9 +17,16 @@ public interface RequestRepository extends JpaRepository<Request, Long> {
 
     int countByEventIdAndStatus(Long eventId, RequestStatus status);
 
-    boolean existsByEventIdAndRequesterId(Long eventId, Long requesterId);
+    @Query("SELECT r.event.id AS eventId, COUNT(r) AS requestCount " +
+            "FROM Request r " +
+            "WHERE r.event.id IN :eventIds " +
+            "AND r.status = :status " +
+            "GROUP BY r.event.id")
+    List<EventRequestCount> countGroupedByEventId(@Param("eventIds") Collection<Long> eventIds,
+                                                  @Param("status") RequestStatus status);
 
-    List<Request> findByEventIdAndStatus(Long eventId, RequestStatus status);
+    boolean existsByEventIdAndRequesterId(Long eventId, Long requesterId);
 
-    List<Request> findByIdIn(List<Long> ids);
+    Optional<Request> findByEventIdAndRequesterIdAndIdempotencyKey(Long eventId, Long requesterId,
+                                                                   String idempotencyKey);
 }
@@ -0,0 +1,137 @@
+package ru.practicum.main.request.repository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Repository;
+import ru.practicum.main.request.dto.ParticipationRequestDto;
+import ru.practicum.main.request.model.RequestStatus;
+
+import java.sql.DatabaseMetaData;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+@Repository
+@RequiredArgsConstructor
+public class RequestStatusRepository {
+
+    private static final String COLUMNS = "id, created_on, event_id, requester_id, status";
+    private static final String UPDATE_LISTED = "UPDATE requests SET status = :status " +
+            "WHERE id IN (:ids) AND event_id = :eventId AND status = 'PENDING'";
+    private static final String SELECT_LISTED = "SELECT " + COLUMNS + " FROM requests " +
+            "WHERE id IN (:ids) AND event_id = :eventId AND status = 'PENDING' FOR UPDATE";
+    private static final String UPDATE_PENDING = "UPDATE requests SET status = :status " +
+            "WHERE event_id = :eventId AND status = 'PENDING'";
+    private static final String SELECT_PENDING = "SELECT " + COLUMNS + " FROM requests " +
+            "WHERE event_id = :eventId AND status = 'PENDING' FOR UPDATE";
+    private static final String EVENT_FULL = "EXISTS (SELECT 1 FROM events e WHERE e.id = :eventId " +
+            "AND e.participant_limit <> 0 AND e.confirmed_requests >= e.participant_limit)";
+    private static final String PROMOTE_NEXT = "UPDATE requests SET status = 'CONFIRMED' WHERE id = (" +
+            "SELECT id FROM requests WHERE event_id = :eventId AND status = 'PENDING' " +
+            "AND queue_position IS NOT NULL AND " + EVENT_FULL + " " +
+            "ORDER BY queue_position LIMIT 1 FOR UPDATE SKIP LOCKED)";
+    private static final String SELECT_NEXT = "SELECT " + COLUMNS + " FROM requests " +
+            "WHERE event_id = :eventId AND status = 'PENDING' " +
+            "AND queue_position IS NOT NULL AND " + EVENT_FULL + " " +
+            "ORDER BY queue_position LIMIT 1 FOR UPDATE";
+    private static final String SELECT_UNQUEUED = "SELECT id FROM requests " +
+            "WHERE id IN (:ids) AND event_id = :eventId AND status = 'PENDING' AND queue_position IS NULL " +
+            "ORDER BY created_on, id FOR UPDATE";
+    private static final String ADVANCE_QUEUE = "UPDATE events SET queue_seq = queue_seq + :count WHERE id = :eventId";
+    private static final String FIND_QUEUE_SEQ = "SELECT queue_seq FROM events WHERE id = :eventId";
+    private static final String UPDATE_QUEUE_POSITION = "UPDATE requests SET queue_position = :position WHERE id = :id";
+    private static final String UPDATE_ONE = "UPDATE requests SET status = :status WHERE id = :id";
+    private static final String RETURNING = " RETURNING " + COLUMNS;
+
+    private static final RowMapper<ParticipationRequestDto> ROW_MAPPER = (rs, rowNum) ->
+            ParticipationRequestDto.builder()
+                    .id(rs.getLong("id"))
+                    .created(rs.getObject("created_on", LocalDateTime.class))
+                    .event(rs.getLong("event_id"))
+                    .requester(rs.getLong("requester_id"))
+                    .status(RequestStatus.valueOf(rs.getString("status")))
+                    .build();
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private boolean returningSupported;
+
+    @PostConstruct
+    void detectReturning() throws MetaDataAccessException {
+        String product = JdbcUtils.extractDatabaseMetaData(Objects.requireNonNull(
+                jdbcTemplate.getJdbcTemplate().getDataSource()), DatabaseMetaData::getDatabaseProductName);
+        returningSupported = "PostgreSQL".equals(product);
+    }
+
+    public List<ParticipationRequestDto> updatePending(Long eventId, Collection<Long> ids, RequestStatus status) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource("eventId", eventId)
+                .addValue("ids", ids)
+                .addValue("status", status.name());
+        if (returningSupported) {
+            return jdbcTemplate.query(UPDATE_LISTED + RETURNING, params, ROW_MAPPER);
+        }
+        List<ParticipationRequestDto> pending = jdbcTemplate.query(SELECT_LISTED, params, ROW_MAPPER);
+        jdbcTemplate.update(UPDATE_LISTED, params);
+        pending.forEach(dto -> dto.setStatus(status));
+        return pending;
+    }
+
+    public List<ParticipationRequestDto> updateAllPending(Long eventId, RequestStatus status) {
+        MapSqlParameterSource params = new MapSqlParameterSource("eventId", eventId)
+                .addValue("status", status.name());
+        if (returningSupported) {
+            return jdbcTemplate.query(UPDATE_PENDING + RETURNING, params, ROW_MAPPER);
+        }
+        List<ParticipationRequestDto> pending = jdbcTemplate.query(SELECT_PENDING, params, ROW_MAPPER);
+        jdbcTemplate.update(UPDATE_PENDING, params);
+        pending.forEach(dto -> dto.setStatus(status));
+        return pending;
+    }
+
+    public int enqueue(Long eventId, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource("eventId", eventId).addValue("ids", ids);
+        List<Long> unqueued = jdbcTemplate.queryForList(SELECT_UNQUEUED, params, Long.class);
+        if (unqueued.isEmpty()) {
+            return 0;
+        }
+        params.addValue("count", unqueued.size());
+        jdbcTemplate.update(ADVANCE_QUEUE, params);
+        Long last = jdbcTemplate.queryForObject(FIND_QUEUE_SEQ, params, Long.class);
+        long position = Objects.requireNonNull(last) - unqueued.size();
+        SqlParameterSource[] batch = new SqlParameterSource[unqueued.size()];
+        for (int i = 0; i < unqueued.size(); i++) {
+            batch[i] = new MapSqlParameterSource("id", unqueued.get(i)).addValue("position", ++position);
+        }
+        jdbcTemplate.batchUpdate(UPDATE_QUEUE_POSITION, batch);
+        return unqueued.size();
+    }
+
+    public Optional<ParticipationRequestDto> promoteNext(Long eventId) {
+        MapSqlParameterSource params = new MapSqlParameterSource("eventId", eventId);
+        if (returningSupported) {
+            return jdbcTemplate.query(PROMOTE_NEXT + RETURNING, params, ROW_MAPPER).stream().findFirst();
+        }
+        Optional<ParticipationRequestDto> next = jdbcTemplate.query(SELECT_NEXT, params, ROW_MAPPER).stream()
+                .findFirst();
+        next.ifPresent(dto -> {
+            jdbcTemplate.update(UPDATE_ONE, new MapSqlParameterSource("id", dto.getId())
+                    .addValue("status", RequestStatus.CONFIRMED.name()));
+            dto.setStatus(RequestStatus.CONFIRMED);
+        });
+        return next;
+    }
+}
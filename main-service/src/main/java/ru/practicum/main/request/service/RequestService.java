@@ -7,7 +7,7 @@ import ru.practicum.main.request.dto.ParticipationRequestDto;
 import java.util.List;
 
 public interface RequestService {
-    ParticipationRequestDto createRequest(Long userId, Long eventId);
+    ParticipationRequestDto createRequest(Long userId, Long eventId, String idempotencyKey);
 
     List<ParticipationRequestDto> getUserRequests(Long userId);
 
@@ -15,13 +15,16 @@ import ru.practicum.main.request.mapper.RequestMapper;
 import ru.practicum.main.request.model.Request;
 import ru.practicum.main.request.model.RequestStatus;
 import ru.practicum.main.request.model.RequestStatusAction;
+import ru.practicum.main.request.repository.RequestIntakeRepository;
 import ru.practicum.main.request.repository.RequestRepository;
+import ru.practicum.main.request.repository.RequestStatusRepository;
 import ru.practicum.main.user.model.User;
 import ru.practicum.main.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,13 +32,32 @@ import java.util.stream.Collectors;
 public class RequestServiceImpl implements RequestService {
 
     private final RequestRepository requestRepository;
+    private final RequestStatusRepository requestStatusRepository;
+    private final RequestIntakeRepository requestIntakeRepository;
     private final EventRepository eventRepository;
     private final UserRepository userRepository;
     private final RequestMapper requestMapper;
 
     @Transactional(rollbackFor = {ConflictException.class, NotFoundException.class})
     @Override
-    public ParticipationRequestDto createRequest(Long userId, Long eventId) {
+    public ParticipationRequestDto createRequest(Long userId, Long eventId, String idempotencyKey) {
+        if (requestIntakeRepository.isSupported()) {
+            Optional<RequestIntakeRepository.Intake> intake = requestIntakeRepository.insert(userId, eventId,
+                    idempotencyKey, LocalDateTime.now());
+            if (intake.isPresent() && intake.get().isUserFound()) {
+                Optional<ParticipationRequestDto> resolved = resolve(intake.get(), idempotencyKey);
+                if (resolved.isPresent()) {
+                    return resolved.get();
+                }
+            }
+        }
+        if (idempotencyKey != null) {
+            Optional<Request> replayed = requestRepository.findByEventIdAndRequesterIdAndIdempotencyKey(eventId,
+                    userId, idempotencyKey);
+            if (replayed.isPresent()) {
+                return requestMapper.toParticipationRequestDto(replayed.get());
+            }
+        }
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("User not found"));
         Event event = eventRepository.findById(eventId)
@@ -50,22 +72,34 @@ public class RequestServiceImpl implements RequestService {
         if (requestRepository.existsByEventIdAndRequesterId(eventId, userId)) {
             throw new ConflictException("Request already exists");
         }
-        int confirmedCount = requestRepository.countByEventIdAndStatus(eventId, RequestStatus.CONFIRMED);
-        if (event.getParticipantLimit() != 0 && confirmedCount >= event.getParticipantLimit()) {
+        boolean waitlist = Boolean.TRUE.equals(event.getWaitlist());
+        boolean full = event.getParticipantLimit() != 0
+                && event.getConfirmedRequests() >= event.getParticipantLimit();
+        if (full && !waitlist) {
             throw new ConflictException("Participant limit reached");
         }
 
-        RequestStatus status = (event.getParticipantLimit() == 0 || !event.getRequestModeration()) ?
-                RequestStatus.CONFIRMED : RequestStatus.PENDING;
+        boolean autoConfirm = event.getParticipantLimit() == 0 || !event.getRequestModeration();
+        RequestStatus status = !full && autoConfirm ? RequestStatus.CONFIRMED : RequestStatus.PENDING;
 
         Request request = Request.builder()
                 .event(event)
                 .requester(user)
                 .created(LocalDateTime.now())
                 .status(status)
+                .idempotencyKey(idempotencyKey)
                 .build();
 
         Request saved = requestRepository.save(request);
+        if (status == RequestStatus.CONFIRMED && eventRepository.reserveConfirmedRequests(eventId, 1) == 0) {
+            if (!waitlist) {
+                throw new ConflictException("Participant limit reached");
+            }
+            saved.setStatus(RequestStatus.PENDING);
+        }
+        if (waitlist && autoConfirm && saved.getStatus() == RequestStatus.PENDING) {
+            saved.setQueuePosition(nextQueuePosition(eventId));
+        }
         return requestMapper.toParticipationRequestDto(saved);
     }
 
@@ -87,6 +121,14 @@ public class RequestServiceImpl implements RequestService {
         if (!request.getRequester().getId().equals(userId)) {
             throw new ConflictException("User can cancel only own requests");
         }
+        if (request.getStatus() == RequestStatus.CONFIRMED) {
+            Event event = request.getEvent();
+            boolean promoted = Boolean.TRUE.equals(event.getWaitlist())
+                    && requestStatusRepository.promoteNext(event.getId()).isPresent();
+            if (!promoted) {
+                eventRepository.addConfirmedRequests(event.getId(), -1);
+            }
+        }
         request.setStatus(RequestStatus.CANCELED);
         return requestMapper.toParticipationRequestDto(requestRepository.save(request));
     }
@@ -107,6 +149,8 @@ public class RequestServiceImpl implements RequestService {
     @Transactional(rollbackFor = {ConflictException.class, NotFoundException.class})
     @Override
     public EventRequestStatusUpdateResult updateRequestStatuses(Long userId, Long eventId, EventRequestStatusUpdateRequest requestDto) {
+        eventRepository.lockById(eventId)
+                .orElseThrow(() -> new NotFoundException("Event not found"));
         Event event = eventRepository.findById(eventId)
                 .orElseThrow(() -> new NotFoundException("Event not found"));
         if (!event.getInitiator().getId().equals(userId)) {
@@ -116,47 +160,83 @@ public class RequestServiceImpl implements RequestService {
             throw new ConflictException("Confirmation not required for this event");
         }
 
-        List<Request> requests = requestRepository.findByIdIn(requestDto.getRequestIds());
-        List<Request> confirmed = new ArrayList<>();
-        List<Request> rejected = new ArrayList<>();
-        int confirmedCount = requestRepository.countByEventIdAndStatus(eventId, RequestStatus.CONFIRMED);
-
-        for (Request req : requests) {
-            if (!req.getStatus().equals(RequestStatus.PENDING)) {
-                throw new ConflictException("Only pending requests can be updated");
+        boolean waitlist = Boolean.TRUE.equals(event.getWaitlist());
+        List<Long> ids = requestDto.getRequestIds().stream().distinct().toList();
+        List<ParticipationRequestDto> confirmed = List.of();
+        List<ParticipationRequestDto> rejected = new ArrayList<>();
+        int expected = ids.size();
+        if (requestDto.getStatus() == RequestStatusAction.CONFIRMED) {
+            long available = Math.max(0, event.getParticipantLimit() - event.getConfirmedRequests());
+            int toConfirm = (int) Math.min(available, ids.size());
+            confirmed = requestStatusRepository.updatePending(eventId, ids.subList(0, toConfirm),
+                    RequestStatus.CONFIRMED);
+            if (waitlist) {
+                expected = toConfirm;
+                requestStatusRepository.enqueue(eventId, ids.subList(toConfirm, ids.size()));
+            } else {
+                rejected.addAll(requestStatusRepository.updatePending(eventId, ids.subList(toConfirm, ids.size()),
+                        RequestStatus.REJECTED));
             }
+        } else {
+            rejected.addAll(requestStatusRepository.updatePending(eventId, ids, RequestStatus.REJECTED));
+        }
+        if (confirmed.size() + rejected.size() < expected) {
+            throw new ConflictException("Only pending requests can be updated");
+        }
+        if (!confirmed.isEmpty() && eventRepository.reserveConfirmedRequests(eventId, confirmed.size()) == 0) {
+            throw new ConflictException("Participant limit reached");
         }
 
-        for (Request req : requests) {
-            if (requestDto.getStatus() == RequestStatusAction.CONFIRMED) {
-                if (event.getParticipantLimit() != 0 && confirmedCount >= event.getParticipantLimit()) {
-                    req.setStatus(RequestStatus.REJECTED);
-                    rejected.add(req);
-                } else {
-                    req.setStatus(RequestStatus.CONFIRMED);
-                    confirmed.add(req);
-                    confirmedCount++;
-                }
-            } else if (requestDto.getStatus() == RequestStatusAction.REJECTED) {
-                req.setStatus(RequestStatus.REJECTED);
-                rejected.add(req);
-            }
+        if (requestDto.getStatus() == RequestStatusAction.CONFIRMED && !waitlist
+                && event.getConfirmedRequests() + confirmed.size() >= event.getParticipantLimit()) {
+            rejected.addAll(requestStatusRepository.updateAllPending(eventId, RequestStatus.REJECTED));
         }
 
-        requestRepository.saveAll(requests);
+        return EventRequestStatusUpdateResult.builder()
+                .confirmedRequests(confirmed)
+                .rejectedRequests(rejected)
+                .build();
+    }
+
+    private Optional<ParticipationRequestDto> resolve(RequestIntakeRepository.Intake intake, String idempotencyKey) {
+        if (intake.getRequest() != null) {
+            return Optional.of(admit(intake));
+        }
+        if (intake.getExisting() != null) {
+            if (idempotencyKey != null && idempotencyKey.equals(intake.getExistingKey())) {
+                return Optional.of(intake.getExisting());
+            }
+            throw new ConflictException("Request already exists");
+        }
+        if (intake.isOwnEvent()) {
+            throw new ConflictException("Initiator cannot request participation in own event");
+        }
+        if (!intake.isPublished()) {
+            throw new ConflictException("Cannot participate in unpublished event");
+        }
+        if (intake.isFull() && !intake.isWaitlist()) {
+            throw new ConflictException("Participant limit reached");
+        }
+        return Optional.empty();
+    }
 
-        if (requestDto.getStatus() == RequestStatusAction.CONFIRMED && event.getParticipantLimit() != 0 && confirmedCount >= event.getParticipantLimit()) {
-            List<Request> pending = requestRepository.findByEventIdAndStatus(eventId, RequestStatus.PENDING);
-            for (Request req : pending) {
-                req.setStatus(RequestStatus.REJECTED);
+    private ParticipationRequestDto admit(RequestIntakeRepository.Intake intake) {
+        ParticipationRequestDto request = intake.getRequest();
+        if (request.getStatus() == RequestStatus.CONFIRMED
+                && eventRepository.reserveConfirmedRequests(request.getEvent(), 1) == 0) {
+            if (!intake.isWaitlist()) {
+                throw new ConflictException("Participant limit reached");
             }
-            requestRepository.saveAll(pending);
-            rejected.addAll(pending);
+            request.setStatus(RequestStatus.PENDING);
         }
+        if (intake.isWaitlist() && intake.isAutoConfirm() && request.getStatus() == RequestStatus.PENDING) {
+            requestIntakeRepository.requeue(request.getId(), nextQueuePosition(request.getEvent()));
+        }
+        return request;
+    }
 
-        return EventRequestStatusUpdateResult.builder()
-                .confirmedRequests(confirmed.stream().map(requestMapper::toParticipationRequestDto).collect(Collectors.toList()))
-                .rejectedRequests(rejected.stream().map(requestMapper::toParticipationRequestDto).collect(Collectors.toList()))
-                .build();
+    private long nextQueuePosition(Long eventId) {
+        eventRepository.advanceQueueSequence(eventId);
+        return eventRepository.findQueueSequence(eventId);
     }
 }
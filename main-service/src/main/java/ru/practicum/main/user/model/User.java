@@ -2,12 +2,14 @@ package ru.practicum.main.user.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 
 @Getter
 @Setter
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@BatchSize(size = 50)
 @Entity
 @Table(name = "users")
 public class User {
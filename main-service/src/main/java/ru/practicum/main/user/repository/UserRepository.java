@@ -1,16 +1,16 @@
 package ru.practicum.main.user.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import ru.practicum.main.user.model.User;
 
 import java.util.List;
 
 public interface UserRepository extends JpaRepository<User, Long> {
-    Page<User> findByIdIn(List<Long> ids, Pageable pageable);
+    Slice<User> findByIdIn(List<Long> ids, Pageable pageable);
 
-    Page<User> findAll(Pageable pageable);
+    Slice<User> findAllBy(Pageable pageable);
 
     boolean existsByEmail(String email);
 }
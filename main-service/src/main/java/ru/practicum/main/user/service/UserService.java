@@ -2,8 +2,11 @@ package ru.practicum.main.user.service;
 
 import ru.practicum.main.user.dto.NewUserRequest;
 import ru.practicum.main.user.dto.UserDto;
+import ru.practicum.main.user.dto.UserShortDto;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface UserService {
     UserDto createUser(NewUserRequest request);
@@ -11,4 +14,6 @@ public interface UserService {
     List<UserDto> getUsers(List<Long> ids, int from, int size);
 
     void deleteUser(Long userId);
+
+    Map<Long, UserShortDto> getUserShorts(Collection<Long> userIds);
 }
@@ -1,18 +1,26 @@
 package ru.practicum.main.user.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.main.cache.CacheConfig;
+import ru.practicum.main.cache.CacheEvictEvent;
+import ru.practicum.main.cache.DtoCache;
 import ru.practicum.main.exception.ConflictException;
 import ru.practicum.main.exception.NotFoundException;
 import ru.practicum.main.user.dto.NewUserRequest;
 import ru.practicum.main.user.dto.UserDto;
+import ru.practicum.main.user.dto.UserShortDto;
 import ru.practicum.main.user.mapper.UserMapper;
 import ru.practicum.main.user.model.User;
 import ru.practicum.main.user.repository.UserRepository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Transactional
@@ -22,6 +30,8 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final DtoCache dtoCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(rollbackFor = {ConflictException.class})
     @Override
@@ -41,7 +51,7 @@ public class UserServiceImpl implements UserService {
         if (ids != null && !ids.isEmpty()) {
             users = userRepository.findByIdIn(ids, pageRequest).getContent();
         } else {
-            users = userRepository.findAll(pageRequest).getContent();
+            users = userRepository.findAllBy(pageRequest).getContent();
         }
         return users.stream()
                 .map(userMapper::toUserDto)
@@ -55,5 +65,15 @@ public class UserServiceImpl implements UserService {
             throw new NotFoundException("User not found");
         }
         userRepository.deleteById(userId);
+        eventPublisher.publishEvent(new CacheEvictEvent(CacheConfig.USER_SHORTS, userId));
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Map<Long, UserShortDto> getUserShorts(Collection<Long> userIds) {
+        return dtoCache.getAll(CacheConfig.USER_SHORTS, userIds, misses -> userRepository.findAllById(misses)
+                .stream()
+                .map(userMapper::toUserShortDto)
+                .collect(Collectors.toMap(UserShortDto::getId, Function.identity())));
     }
 }
@@ -0,0 +1,4 @@
+CREATE INDEX IF NOT EXISTS idx_events_full_text ON events
+    USING GIN (to_tsvector('simple', annotation || ' ' || description));
+
+CREATE INDEX IF NOT EXISTS idx_requests_event_pending ON requests (event_id, queue_position) WHERE status = 'PENDING';
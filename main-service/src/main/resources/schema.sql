@@ -9,6 +9,7 @@ CREATE TABLE IF NOT EXISTS users (
 CREATE TABLE IF NOT EXISTS categories (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
     name VARCHAR(50) NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0,
     CONSTRAINT pk_categories PRIMARY KEY (id),
     CONSTRAINT uq_category_name UNIQUE (name)
 );
@@ -33,8 +34,13 @@ CREATE TABLE IF NOT EXISTS events (
     participant_limit INTEGER NOT NULL,
     published_on TIMESTAMP WITHOUT TIME ZONE,
     request_moderation BOOLEAN NOT NULL,
+    waitlist BOOLEAN NOT NULL DEFAULT FALSE,
+    queue_seq BIGINT NOT NULL DEFAULT 0,
     state VARCHAR(10) NOT NULL,
     title VARCHAR(120) NOT NULL,
+    confirmed_requests BIGINT NOT NULL DEFAULT 0,
+    views BIGINT NOT NULL DEFAULT 0,
+    version BIGINT NOT NULL DEFAULT 0,
     CONSTRAINT pk_events PRIMARY KEY (id),
     CONSTRAINT fk_event_to_category FOREIGN KEY (category_id) REFERENCES categories (id),
     CONSTRAINT fk_event_to_user FOREIGN KEY (initiator_id) REFERENCES users (id),
@@ -47,6 +53,8 @@ CREATE TABLE IF NOT EXISTS requests (
     event_id BIGINT NOT NULL,
     requester_id BIGINT NOT NULL,
     status VARCHAR(10) NOT NULL,
+    queue_position BIGINT,
+    idempotency_key VARCHAR(64),
     CONSTRAINT pk_requests PRIMARY KEY (id),
     CONSTRAINT fk_request_to_event FOREIGN KEY (event_id) REFERENCES events (id),
     CONSTRAINT fk_request_to_user FOREIGN KEY (requester_id) REFERENCES users (id),
@@ -57,6 +65,7 @@ CREATE TABLE IF NOT EXISTS compilations (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
     pinned BOOLEAN NOT NULL,
     title VARCHAR(50) NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0,
     CONSTRAINT pk_compilations PRIMARY KEY (id),
     CONSTRAINT uq_compilation_title UNIQUE (title)
 );
@@ -67,4 +76,29 @@ CREATE TABLE IF NOT EXISTS compilation_events (
     CONSTRAINT pk_compilation_events PRIMARY KEY (compilation_id, event_id),
     CONSTRAINT fk_comp_event_to_compilation FOREIGN KEY (compilation_id) REFERENCES compilations (id) ON DELETE CASCADE,
     CONSTRAINT fk_comp_event_to_event FOREIGN KEY (event_id) REFERENCES events (id) ON DELETE CASCADE
-);
\ No newline at end of file
+);
+CREATE TABLE IF NOT EXISTS views_sync_state (
+    id INTEGER NOT NULL,
+    synced_to TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    CONSTRAINT pk_views_sync_state PRIMARY KEY (id)
+);
+
+ALTER TABLE categories ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE compilations ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE events ADD COLUMN IF NOT EXISTS waitlist BOOLEAN NOT NULL DEFAULT FALSE;
+ALTER TABLE events ADD COLUMN IF NOT EXISTS queue_seq BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE events ADD COLUMN IF NOT EXISTS views BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE events ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE events ADD COLUMN IF NOT EXISTS confirmed_requests BIGINT;
+UPDATE events e
+SET confirmed_requests = (SELECT COUNT(*) FROM requests r WHERE r.event_id = e.id AND r.status = 'CONFIRMED')
+WHERE e.confirmed_requests IS NULL;
+ALTER TABLE events ALTER COLUMN confirmed_requests SET DEFAULT 0;
+ALTER TABLE events ALTER COLUMN confirmed_requests SET NOT NULL;
+ALTER TABLE requests ADD COLUMN IF NOT EXISTS queue_position BIGINT;
+ALTER TABLE requests ADD COLUMN IF NOT EXISTS idempotency_key VARCHAR(64);
+
+CREATE INDEX IF NOT EXISTS idx_events_state_event_date ON events (state, event_date, id);
+CREATE INDEX IF NOT EXISTS idx_events_state_views ON events (state, views DESC, id);
+CREATE INDEX IF NOT EXISTS idx_events_initiator_event_date ON events (initiator_id, event_date, id);
+CREATE INDEX IF NOT EXISTS idx_events_event_date ON events (event_date, id);
@@ -0,0 +1,225 @@
+package ru.practicum.main.event;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.main.category.model.Category;
+import ru.practicum.main.category.repository.CategoryRepository;
+import ru.practicum.main.compilation.dto.CompilationDto;
+import ru.practicum.main.compilation.model.Compilation;
+import ru.practicum.main.compilation.repository.CompilationRepository;
+import ru.practicum.main.compilation.service.CompilationService;
+import ru.practicum.main.event.dto.EventFullDto;
+import ru.practicum.main.event.dto.EventShortDto;
+import ru.practicum.main.event.model.Event;
+import ru.practicum.main.event.model.EventState;
+import ru.practicum.main.event.repository.EventRepository;
+import ru.practicum.main.event.service.EventService;
+import ru.practicum.main.event.service.EventStatsService;
+import ru.practicum.main.location.model.Location;
+import ru.practicum.main.user.model.User;
+import ru.practicum.main.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:event-association-loading;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "events.confirmed-requests.reconcile-interval-ms=3600000",
+        "compilations.cache.refresh-interval-ms=3600000"
+})
+class EventAssociationLoadingTest {
+
+    private static final int EVENTS = 5;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private CompilationService compilationService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private CompilationRepository compilationRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private EventStatsService eventStatsService;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void adminSearchLoadsAssociationsWithThePage() {
+        List<Event> events = createEvents(EVENTS);
+        List<Long> initiators = events.stream().map(event -> event.getInitiator().getId()).toList();
+        statistics.clear();
+
+        List<EventFullDto> page = eventService.searchAdminEvents(initiators, null, null, null, null, null, 0,
+                EVENTS).getItems();
+
+        assertThat(page).hasSize(EVENTS);
+        assertThat(page).allSatisfy(this::assertDetailsLoaded);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void adminKeysetPageLoadsAssociationsWithThePage() {
+        List<Event> events = createEvents(EVENTS);
+        List<Long> initiators = events.stream().map(event -> event.getInitiator().getId()).toList();
+        statistics.clear();
+
+        List<EventFullDto> page = eventService.searchAdminEvents(initiators, null, null, null, null, "", 0,
+                EVENTS).getItems();
+
+        assertThat(page).hasSize(EVENTS);
+        assertThat(page).allSatisfy(this::assertDetailsLoaded);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void userKeysetPageResolvesCategoriesAndInitiatorsInBulk() {
+        User initiator = createUser();
+        for (int i = 0; i < EVENTS; i++) {
+            createEvent(initiator, createCategory());
+        }
+        statistics.clear();
+
+        List<EventShortDto> page = eventService.getUserEvents(initiator.getId(), "", 0, EVENTS).getItems();
+
+        assertThat(page).hasSize(EVENTS);
+        assertThat(page).allSatisfy(event -> {
+            assertThat(event.getCategory().getName()).isNotNull();
+            assertThat(event.getInitiator().getName()).isEqualTo(initiator.getName());
+        });
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    void compilationPageLoadsEventsInBulk() {
+        List<Event> events = createEvents(EVENTS * 2);
+        for (int i = 0; i < EVENTS; i++) {
+            compilationRepository.save(Compilation.builder()
+                    .title(UUID.randomUUID().toString().substring(0, 30))
+                    .pinned(false)
+                    .events(Set.of(events.get(2 * i), events.get(2 * i + 1)))
+                    .build());
+        }
+        statistics.clear();
+
+        List<CompilationDto> compilations = compilationService.getCompilations(null, 0, EVENTS);
+
+        assertThat(compilations).hasSize(EVENTS);
+        assertThat(compilations).allSatisfy(compilation -> assertThat(compilation.getEvents()).hasSize(2));
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(6);
+    }
+
+    @Test
+    void findByIdLeavesAssociationsLazy() {
+        Event created = createEvents(1).get(0);
+        statistics.clear();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Event event = eventRepository.findById(created.getId()).orElseThrow();
+            assertThat(Hibernate.isInitialized(event.getCategory())).isFalse();
+            assertThat(Hibernate.isInitialized(event.getInitiator())).isFalse();
+            assertThat(Hibernate.isInitialized(event.getLocation())).isFalse();
+        });
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void findDetailedByIdLoadsAssociationsInOneStatement() {
+        Event created = createEvents(1).get(0);
+        statistics.clear();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Event event = eventRepository.findDetailedById(created.getId()).orElseThrow();
+            assertThat(Hibernate.isInitialized(event.getCategory())).isTrue();
+            assertThat(Hibernate.isInitialized(event.getInitiator())).isTrue();
+            assertThat(Hibernate.isInitialized(event.getLocation())).isTrue();
+        });
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    private void assertDetailsLoaded(EventFullDto event) {
+        assertThat(event.getCategory().getName()).isNotNull();
+        assertThat(event.getInitiator().getName()).isNotNull();
+        assertThat(event.getLocation().getLat()).isNotNull();
+    }
+
+    private List<Event> createEvents(int count) {
+        List<Event> events = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            events.add(createEvent(createUser(), createCategory()));
+        }
+        return events;
+    }
+
+    private User createUser() {
+        String name = UUID.randomUUID().toString();
+        return userRepository.save(User.builder()
+                .name(name)
+                .email(name + "@example.com")
+                .build());
+    }
+
+    private Category createCategory() {
+        return categoryRepository.save(Category.builder()
+                .name(UUID.randomUUID().toString().substring(0, 30))
+                .build());
+    }
+
+    private Event createEvent(User initiator, Category category) {
+        return eventRepository.save(Event.builder()
+                .annotation("Association loading test event annotation")
+                .category(category)
+                .createdOn(LocalDateTime.now())
+                .description("Association loading test event description")
+                .eventDate(LocalDateTime.now().plusDays(7))
+                .initiator(initiator)
+                .location(Location.builder().lat(55.75f).lon(37.62f).build())
+                .paid(false)
+                .participantLimit(0)
+                .publishedOn(LocalDateTime.now())
+                .requestModeration(false)
+                .waitlist(false)
+                .state(EventState.PUBLISHED)
+                .title("Association loading test event")
+                .confirmedRequests(0L)
+                .views(0L)
+                .build());
+    }
+}
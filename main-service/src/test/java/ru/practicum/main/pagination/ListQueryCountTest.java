@@ -0,0 +1,180 @@
+package ru.practicum.main.pagination;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.main.category.model.Category;
+import ru.practicum.main.category.repository.CategoryRepository;
+import ru.practicum.main.compilation.model.Compilation;
+import ru.practicum.main.compilation.repository.CompilationRepository;
+import ru.practicum.main.event.model.Event;
+import ru.practicum.main.event.model.EventSearchMode;
+import ru.practicum.main.event.model.EventShortProjection;
+import ru.practicum.main.event.model.EventState;
+import ru.practicum.main.event.repository.EventRepository;
+import ru.practicum.main.event.repository.EventSpecifications;
+import ru.practicum.main.event.service.EventStatsService;
+import ru.practicum.main.location.model.Location;
+import ru.practicum.main.user.model.User;
+import ru.practicum.main.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:list-query-count;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "events.confirmed-requests.reconcile-interval-ms=3600000",
+        "compilations.cache.refresh-interval-ms=3600000"
+})
+class ListQueryCountTest {
+
+    private static final int ROWS = 5;
+    private static final int PAGE_SIZE = 3;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private CompilationRepository compilationRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private EventStatsService eventStatsService;
+
+    private Statistics statistics;
+    private User initiator;
+
+    @BeforeEach
+    void setUp() {
+        initiator = createUser();
+        List<Event> events = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            events.add(createEvent(initiator, createCategory()));
+            createUser();
+            compilationRepository.save(Compilation.builder()
+                    .title(UUID.randomUUID().toString().substring(0, 30))
+                    .pinned(true)
+                    .events(Set.copyOf(events))
+                    .build());
+        }
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void publicEventSearchRunsOneStatement() {
+        List<Event> events = eventRepository.findWithoutCount(
+                EventSpecifications.publicFilter("test", null, null, null, null, false, EventSearchMode.LIKE),
+                OffsetPageRequest.of(0, PAGE_SIZE, Sort.by("eventDate")));
+
+        assertThat(events).hasSize(PAGE_SIZE);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void initiatorEventListRunsOneStatement() {
+        List<EventShortProjection> events = eventRepository.findShortWithoutCount(
+                EventSpecifications.initiatorIs(initiator.getId()), OffsetPageRequest.of(0, PAGE_SIZE));
+
+        assertThat(events).hasSize(PAGE_SIZE);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void userListRunsOneStatement() {
+        Slice<User> users = userRepository.findAllBy(PageRequest.of(0, PAGE_SIZE));
+
+        assertThat(users.hasNext()).isTrue();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void userListByIdsRunsOneStatement() {
+        List<Long> ids = userRepository.findAll().stream().map(User::getId).toList();
+        statistics.clear();
+
+        Slice<User> users = userRepository.findByIdIn(ids, PageRequest.of(0, PAGE_SIZE));
+
+        assertThat(users.hasNext()).isTrue();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void categoryListRunsOneStatement() {
+        Slice<Category> categories = categoryRepository.findAllBy(PageRequest.of(0, PAGE_SIZE, Sort.by("id")));
+
+        assertThat(categories.hasNext()).isTrue();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void compilationListRunsOneStatement() {
+        Slice<Long> pinned = compilationRepository.findIdsByPinned(true, PageRequest.of(0, PAGE_SIZE));
+        assertThat(pinned.hasNext()).isTrue();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        statistics.clear();
+        Slice<Long> all = compilationRepository.findIds(PageRequest.of(0, PAGE_SIZE));
+        assertThat(all.hasNext()).isTrue();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    private User createUser() {
+        String name = UUID.randomUUID().toString();
+        return userRepository.save(User.builder()
+                .name(name)
+                .email(name + "@example.com")
+                .build());
+    }
+
+    private Category createCategory() {
+        return categoryRepository.save(Category.builder()
+                .name(UUID.randomUUID().toString().substring(0, 30))
+                .build());
+    }
+
+    private Event createEvent(User initiator, Category category) {
+        return eventRepository.save(Event.builder()
+                .annotation("List query test event annotation")
+                .category(category)
+                .createdOn(LocalDateTime.now())
+                .description("List query test event description")
+                .eventDate(LocalDateTime.now().plusDays(7))
+                .initiator(initiator)
+                .location(Location.builder().lat(55.75f).lon(37.62f).build())
+                .paid(false)
+                .participantLimit(0)
+                .publishedOn(LocalDateTime.now())
+                .requestModeration(false)
+                .waitlist(false)
+                .state(EventState.PUBLISHED)
+                .title("List query test event")
+                .confirmedRequests(0L)
+                .views(0L)
+                .build());
+    }
+}
@@ -0,0 +1,191 @@
+package ru.practicum.main.request.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.main.category.model.Category;
+import ru.practicum.main.category.repository.CategoryRepository;
+import ru.practicum.main.event.model.Event;
+import ru.practicum.main.event.model.EventState;
+import ru.practicum.main.event.repository.EventRepository;
+import ru.practicum.main.exception.ConflictException;
+import ru.practicum.main.location.model.Location;
+import ru.practicum.main.request.dto.EventRequestStatusUpdateRequest;
+import ru.practicum.main.request.model.Request;
+import ru.practicum.main.request.model.RequestStatus;
+import ru.practicum.main.request.model.RequestStatusAction;
+import ru.practicum.main.request.repository.RequestRepository;
+import ru.practicum.main.user.model.User;
+import ru.practicum.main.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:request-concurrency;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "events.views-sync.interval-ms=3600000",
+        "events.confirmed-requests.reconcile-interval-ms=3600000",
+        "compilations.cache.refresh-interval-ms=3600000"
+})
+class RequestServiceConcurrencyTest {
+
+    private static final int PARTICIPANT_LIMIT = 10;
+    private static final int REQUESTERS = 40;
+    private static final int THREADS = 8;
+
+    @Autowired
+    private RequestService requestService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private RequestRepository requestRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void createRequestNeverConfirmsPastParticipantLimit() throws Exception {
+        User initiator = createUser();
+        Event event = createEvent(initiator, false);
+        List<User> requesters = new ArrayList<>();
+        for (int i = 0; i < REQUESTERS; i++) {
+            requesters.add(createUser());
+        }
+
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (User requester : requesters) {
+            tasks.add(() -> {
+                requestService.createRequest(requester.getId(), event.getId(), null);
+                return null;
+            });
+        }
+        int conflicts = runConcurrently(tasks);
+
+        assertThat(conflicts).isEqualTo(REQUESTERS - PARTICIPANT_LIMIT);
+        assertThat(confirmedRequests(event.getId())).isEqualTo(PARTICIPANT_LIMIT);
+        assertThat(countRequests(event.getId(), RequestStatus.CONFIRMED)).isEqualTo(PARTICIPANT_LIMIT);
+    }
+
+    @Test
+    void updateRequestStatusesNeverConfirmsPastParticipantLimit() throws Exception {
+        User initiator = createUser();
+        Event event = createEvent(initiator, true);
+        List<Long> requestIds = new ArrayList<>();
+        for (int i = 0; i < REQUESTERS; i++) {
+            requestIds.add(createPendingRequest(event, createUser()).getId());
+        }
+
+        int batchSize = REQUESTERS / THREADS;
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            List<Long> batch = requestIds.subList(i * batchSize, (i + 1) * batchSize);
+            tasks.add(() -> {
+                requestService.updateRequestStatuses(initiator.getId(), event.getId(),
+                        new EventRequestStatusUpdateRequest(batch, RequestStatusAction.CONFIRMED));
+                return null;
+            });
+        }
+        runConcurrently(tasks);
+
+        assertThat(confirmedRequests(event.getId())).isEqualTo(PARTICIPANT_LIMIT);
+        assertThat(countRequests(event.getId(), RequestStatus.CONFIRMED)).isEqualTo(PARTICIPANT_LIMIT);
+        assertThat(countRequests(event.getId(), RequestStatus.PENDING)).isZero();
+    }
+
+    private int runConcurrently(List<Callable<Void>> tasks) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Void>> futures = new ArrayList<>();
+        for (Callable<Void> task : tasks) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return task.call();
+            }));
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(60, TimeUnit.SECONDS)).isTrue();
+        int conflicts = 0;
+        for (Future<Void> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                assertThat(e.getCause()).isInstanceOf(ConflictException.class);
+                conflicts++;
+            }
+        }
+        return conflicts;
+    }
+
+    private User createUser() {
+        String name = UUID.randomUUID().toString();
+        return userRepository.save(User.builder()
+                .name(name)
+                .email(name + "@example.com")
+                .build());
+    }
+
+    private Event createEvent(User initiator, boolean requestModeration) {
+        Category category = categoryRepository.save(Category.builder()
+                .name(UUID.randomUUID().toString().substring(0, 30))
+                .build());
+        return eventRepository.save(Event.builder()
+                .annotation("Concurrency test event annotation")
+                .category(category)
+                .createdOn(LocalDateTime.now())
+                .description("Concurrency test event description")
+                .eventDate(LocalDateTime.now().plusDays(7))
+                .initiator(initiator)
+                .location(Location.builder().lat(55.75f).lon(37.62f).build())
+                .paid(false)
+                .participantLimit(PARTICIPANT_LIMIT)
+                .publishedOn(LocalDateTime.now())
+                .requestModeration(requestModeration)
+                .waitlist(false)
+                .state(EventState.PUBLISHED)
+                .title("Concurrency test event")
+                .confirmedRequests(0L)
+                .views(0L)
+                .build());
+    }
+
+    private Request createPendingRequest(Event event, User requester) {
+        return requestRepository.save(Request.builder()
+                .event(event)
+                .requester(requester)
+                .created(LocalDateTime.now())
+                .status(RequestStatus.PENDING)
+                .build());
+    }
+
+    private long confirmedRequests(Long eventId) {
+        return jdbcTemplate.queryForObject("SELECT confirmed_requests FROM events WHERE id = ?", Long.class, eventId);
+    }
+
+    private long countRequests(Long eventId, RequestStatus status) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM requests WHERE event_id = ? AND status = ?",
+                Long.class, eventId, status.name());
+    }
+}
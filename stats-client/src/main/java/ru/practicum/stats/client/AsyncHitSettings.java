@@ -0,0 +1,24 @@
+package ru.practicum.stats.client;
+
+import lombok.*;
+
+import java.time.Duration;
+
+@Getter
+@Builder
+@AllArgsConstructor
+public class AsyncHitSettings {
+
+    @Builder.Default
+    private int capacity = 10_000;
+
+    @Builder.Default
+    private int batchSize = 100;
+
+    @Builder.Default
+    private Duration flushInterval = Duration.ofSeconds(1);
+
+    @Builder.Default
+    private HitOverflowPolicy overflowPolicy = HitOverflowPolicy.DROP_NEWEST;
+
+}
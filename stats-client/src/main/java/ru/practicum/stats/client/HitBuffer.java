@@ -0,0 +1,134 @@
+package ru.practicum.stats.client;
+
+import lombok.extern.slf4j.Slf4j;
+import ru.practicum.stats.dto.HitDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+@Slf4j
+class HitBuffer implements AutoCloseable {
+
+    private final ConcurrentLinkedQueue<HitDto> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicBoolean flushPending = new AtomicBoolean();
+    private final AsyncHitSettings settings;
+    private final Consumer<List<HitDto>> sender;
+    private final ScheduledExecutorService executor;
+
+    HitBuffer(AsyncHitSettings settings, Consumer<List<HitDto>> sender) {
+        if (settings.getCapacity() <= 0 || settings.getBatchSize() <= 0) {
+            throw new IllegalArgumentException("Hit buffer capacity and batch size must be positive");
+        }
+        this.settings = settings;
+        this.sender = sender;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stats-hit-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = settings.getFlushInterval().toMillis();
+        executor.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    void offer(HitDto hit) {
+        if (tryReserve()) {
+            queue.offer(hit);
+            requestFlushIfBatchReady();
+            return;
+        }
+        switch (settings.getOverflowPolicy()) {
+            case DROP_OLDEST:
+                if (queue.poll() != null) {
+                    queue.offer(hit);
+                } else if (tryReserve()) {
+                    queue.offer(hit);
+                    return;
+                }
+                dropped.incrementAndGet();
+                break;
+            case CALLER_RUNS:
+                send(List.of(hit));
+                break;
+            default:
+                dropped.incrementAndGet();
+        }
+    }
+
+    int getQueueDepth() {
+        return size.get();
+    }
+
+    long getDroppedHits() {
+        return dropped.get();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(settings.getFlushInterval().toMillis() * 2, TimeUnit.MILLISECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    private boolean tryReserve() {
+        int current;
+        do {
+            current = size.get();
+            if (current >= settings.getCapacity()) {
+                return false;
+            }
+        } while (!size.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    private void requestFlushIfBatchReady() {
+        if (size.get() >= settings.getBatchSize() && flushPending.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::flush);
+            } catch (RuntimeException e) {
+                flushPending.set(false);
+            }
+        }
+    }
+
+    private void flush() {
+        flushPending.set(false);
+        List<HitDto> batch = new ArrayList<>(settings.getBatchSize());
+        HitDto hit;
+        while ((hit = queue.poll()) != null) {
+            size.decrementAndGet();
+            batch.add(hit);
+            if (batch.size() == settings.getBatchSize()) {
+                send(batch);
+                batch = new ArrayList<>(settings.getBatchSize());
+            }
+        }
+        if (!batch.isEmpty()) {
+            send(batch);
+        }
+    }
+
+    private void send(List<HitDto> batch) {
+        try {
+            sender.accept(batch);
+        } catch (RuntimeException e) {
+            dropped.addAndGet(batch.size());
+            log.warn("Failed to send {} hits to stats-server: {}", batch.size(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package ru.practicum.stats.client;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@EqualsAndHashCode
+@AllArgsConstructor
+class StatsCacheKey {
+
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+    private final List<String> uris;
+    private final Boolean unique;
+}
@@ -0,0 +1,21 @@
+package ru.practicum.stats.client;
+
+import lombok.*;
+
+import java.time.Duration;
+
+@Getter
+@Builder
+@AllArgsConstructor
+public class StatsCacheSettings {
+
+    @Builder.Default
+    private long maximumSize = 10_000;
+
+    @Builder.Default
+    private Duration ttl = Duration.ofSeconds(5);
+
+    @Builder.Default
+    private Duration granularity = Duration.ofSeconds(1);
+
+}
@@ -1,6 +1,9 @@
 package ru.practicum.stats.client;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
@@ -12,15 +15,19 @@ import ru.practicum.stats.dto.HitDto;
 import ru.practicum.stats.dto.StatsDto;
 
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
-public class StatsClient {
+public class StatsClient implements AutoCloseable {
 
     private final RestTemplate restTemplate;
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private HitBuffer hitBuffer;
+    private Cache<StatsCacheKey, ResponseEntity<List<StatsDto>>> statsCache;
+    private long statsCacheGranularitySeconds;
 
     public StatsClient(String serverUrl, RestTemplateBuilder builder) {
         this.restTemplate = builder
@@ -36,7 +43,56 @@ public class StatsClient {
                 .build();
     }
 
+    public StatsClient enableAsyncHits(AsyncHitSettings settings) {
+        this.hitBuffer = new HitBuffer(settings, hits -> {
+            ResponseEntity<Void> response = addHits(hits);
+            if (!response.getStatusCode().is2xxSuccessful()) {
+                throw new IllegalStateException("stats-server responded with " + response.getStatusCode());
+            }
+        });
+        return this;
+    }
+
+    public StatsClient enableStatsCache(StatsCacheSettings settings) {
+        this.statsCache = Caffeine.newBuilder()
+                .maximumSize(settings.getMaximumSize())
+                .expireAfterWrite(settings.getTtl())
+                .recordStats()
+                .build();
+        this.statsCacheGranularitySeconds = Math.max(1, settings.getGranularity().toSeconds());
+        return this;
+    }
+
+    public Cache<?, ?> getStatsCache() {
+        return statsCache;
+    }
+
+    public int getQueuedHits() {
+        return hitBuffer == null ? 0 : hitBuffer.getQueueDepth();
+    }
+
+    public long getDroppedHits() {
+        return hitBuffer == null ? 0 : hitBuffer.getDroppedHits();
+    }
+
     public ResponseEntity<Void> addHit(HitDto hitDto) {
+        if (hitBuffer != null) {
+            hitBuffer.offer(hitDto);
+            return ResponseEntity.accepted().build();
+        }
+        return postHit(hitDto);
+    }
+
+    public ResponseEntity<Void> addHits(List<HitDto> hits) {
+        HttpEntity<List<HitDto>> requestEntity = new HttpEntity<>(hits);
+        try {
+            return restTemplate.exchange("/hits", HttpMethod.POST, requestEntity, Void.class);
+        } catch (HttpStatusCodeException e) {
+            return ResponseEntity.status(e.getStatusCode()).build();
+        }
+    }
+
+    private ResponseEntity<Void> postHit(HitDto hitDto) {
         HttpEntity<HitDto> requestEntity = new HttpEntity<>(hitDto);
         try {
             return restTemplate.exchange("/hit", HttpMethod.POST, requestEntity, Void.class);
@@ -49,48 +105,58 @@ public class StatsClient {
                                                    LocalDateTime end,
                                                    List<String> uris,
                                                    Boolean unique) {
-        Map<String, Object> parameters = Map.of(
-                "start", start.format(FORMATTER),
-                "end", end.format(FORMATTER),
-                "unique", unique
-        );
-
-        String path = "/stats?start={start}&end={end}&unique={unique}";
-
-        if (uris != null && !uris.isEmpty()) {
-            String urisParam = uris.stream().collect(Collectors.joining(","));
-            path += "&uris=" + urisParam;
+        if (statsCache == null) {
+            return fetchStats(start, end, uris, unique);
         }
-
-        StringBuilder pathBuilder = new StringBuilder("/stats?start={start}&end={end}&unique={unique}");
-        if (uris != null && !uris.isEmpty()) {
-            for (String uri : uris) {
-                pathBuilder.append("&uris=").append(uri);
-            }
+        StatsCacheKey key = new StatsCacheKey(start, truncateEnd(end),
+                uris == null ? List.of() : uris.stream().sorted().toList(), unique);
+        ResponseEntity<List<StatsDto>> response = statsCache.get(key,
+                k -> fetchStats(k.getStart(), k.getEnd(), k.getUris(), k.getUnique()));
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            statsCache.asMap().remove(key, response);
         }
+        return response;
+    }
 
-        Map<String, Object> effectiveParameters = new java.util.HashMap<>(parameters);
+    private LocalDateTime truncateEnd(LocalDateTime end) {
+        long epochSecond = end.toEpochSecond(ZoneOffset.UTC);
+        return LocalDateTime.ofEpochSecond(epochSecond - Math.floorMod(epochSecond, statsCacheGranularitySeconds), 0,
+                ZoneOffset.UTC);
+    }
+
+    private ResponseEntity<List<StatsDto>> fetchStats(LocalDateTime start,
+                                                      LocalDateTime end,
+                                                      List<String> uris,
+                                                      Boolean unique) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("start", start.format(FORMATTER));
+        parameters.put("end", end.format(FORMATTER));
+        parameters.put("unique", unique);
+
+        String path = "/stats?start={start}&end={end}&unique={unique}";
         if (uris != null && !uris.isEmpty()) {
-            effectiveParameters.put("uris", uris.toArray(new String[0]));
+            path += "&uris={uris}";
+            parameters.put("uris", String.join(",", uris));
         }
 
-
         try {
-            String finalPath = "/stats?start={start}&end={end}&unique={unique}" +
-                    ((uris != null && !uris.isEmpty()) ? "&uris={uris}" : "");
-
-
-            ResponseEntity<List<StatsDto>> response = restTemplate.exchange(
-                    finalPath,
+            return restTemplate.exchange(
+                    path,
                     HttpMethod.GET,
                     null,
-                    new org.springframework.core.ParameterizedTypeReference<List<StatsDto>>() {
+                    new ParameterizedTypeReference<List<StatsDto>>() {
                     },
-                    effectiveParameters
+                    parameters
             );
-            return response;
         } catch (HttpStatusCodeException e) {
             return ResponseEntity.status(e.getStatusCode()).body(null);
         }
     }
+
+    @Override
+    public void close() {
+        if (hitBuffer != null) {
+            hitBuffer.close();
+        }
+    }
 }
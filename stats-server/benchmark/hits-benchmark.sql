@@ -0,0 +1,113 @@
+-- Loads a reproducible data set into a scratch database and times the /stats queries before and after the indexes
+-- from schema-postgresql.sql. Everything lives in the hits_benchmark schema, so the live hits table is never read
+-- or changed, and the production indexes stay in place.
+-- Usage: createdb -h localhost -p 6541 -U statsuser statsbench
+--        psql -h localhost -p 6541 -U statsuser -d statsbench -v hits=10000000 -f hits-benchmark.sql
+-- The last statement prints the best of five runs per query and phase, and whether the plan used an index-only scan.
+
+\set ON_ERROR_STOP on
+\if :{?hits}
+\else
+\set hits 10000000
+\endif
+
+SELECT EXISTS (SELECT 1 FROM pg_class WHERE relname = 'hits' AND relnamespace = 'public'::regnamespace) AS live_hits
+\gset
+\if :live_hits
+\echo 'public.hits exists in this database; run the benchmark against a scratch database'
+\quit
+\endif
+
+DROP SCHEMA IF EXISTS hits_benchmark CASCADE;
+CREATE SCHEMA hits_benchmark;
+SET search_path TO hits_benchmark;
+
+CREATE TABLE hits (
+    id BIGSERIAL NOT NULL,
+    app_name VARCHAR(255) NOT NULL,
+    uri VARCHAR(2048) NOT NULL,
+    ip VARCHAR(45) NOT NULL,
+    hit_timestamp TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    CONSTRAINT pk_hits PRIMARY KEY (id, hit_timestamp)
+) PARTITION BY RANGE (hit_timestamp);
+
+CREATE TABLE hits_default PARTITION OF hits DEFAULT;
+
+SELECT format('CREATE TABLE %I PARTITION OF hits FOR VALUES FROM (%L) TO (%L)',
+              'hits_y' || to_char(m, 'YYYY') || 'm' || to_char(m, 'MM'), m, m + INTERVAL '1 month')
+FROM generate_series(TIMESTAMP '2024-01-01', TIMESTAMP '2025-12-01', INTERVAL '1 month') AS m
+\gexec
+
+SELECT setseed(0.42);
+
+INSERT INTO hits (app_name, uri, ip, hit_timestamp)
+SELECT 'ewm-main-service',
+       '/events/' || (1 + floor(random() * 10000))::int,
+       '10.' || floor(random() * 256)::int || '.' || floor(random() * 256)::int || '.' || floor(random() * 256)::int,
+       TIMESTAMP '2024-01-01' + random() * INTERVAL '730 days'
+FROM generate_series(1, :hits);
+
+VACUUM ANALYZE hits;
+
+CREATE TABLE results (
+    phase TEXT NOT NULL,
+    query TEXT NOT NULL,
+    best_ms NUMERIC NOT NULL,
+    index_only BOOLEAN NOT NULL
+);
+
+CREATE FUNCTION measure(p_phase TEXT) RETURNS VOID AS $$
+DECLARE
+    queries TEXT[][] := ARRAY[
+        ARRAY['unique, uris, 1 month',
+              'SELECT h.app_name, h.uri, COUNT(DISTINCT h.ip) FROM hits h '
+              'WHERE h.hit_timestamp BETWEEN TIMESTAMP ''2025-03-01'' AND TIMESTAMP ''2025-03-31'' '
+              'AND h.uri IN (''/events/1'', ''/events/2'', ''/events/3'', ''/events/4'', ''/events/5'') '
+              'GROUP BY h.app_name, h.uri ORDER BY COUNT(DISTINCT h.ip) DESC'],
+        ARRAY['non-unique, uris, 1 month',
+              'SELECT h.app_name, h.uri, COUNT(h.ip) FROM hits h '
+              'WHERE h.hit_timestamp BETWEEN TIMESTAMP ''2025-03-01'' AND TIMESTAMP ''2025-03-31'' '
+              'AND h.uri IN (''/events/1'', ''/events/2'', ''/events/3'', ''/events/4'', ''/events/5'') '
+              'GROUP BY h.app_name, h.uri ORDER BY COUNT(h.ip) DESC'],
+        ARRAY['non-unique, no uris, 1 day',
+              'SELECT h.app_name, h.uri, COUNT(h.ip) FROM hits h '
+              'WHERE h.hit_timestamp BETWEEN TIMESTAMP ''2025-03-01'' AND TIMESTAMP ''2025-03-02'' '
+              'GROUP BY h.app_name, h.uri ORDER BY COUNT(h.ip) DESC']
+    ];
+    plan JSON;
+    best NUMERIC;
+    index_only BOOLEAN;
+BEGIN
+    FOR i IN 1 .. array_length(queries, 1) LOOP
+        best := NULL;
+        FOR run IN 1 .. 5 LOOP
+            EXECUTE 'EXPLAIN (ANALYZE, FORMAT JSON) ' || queries[i][2] INTO plan;
+            best := LEAST(best, (plan -> 0 ->> 'Execution Time')::NUMERIC);
+            index_only := plan::TEXT LIKE '%Index Only Scan%';
+        END LOOP;
+        INSERT INTO results VALUES (p_phase, queries[i][1], best, index_only);
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
+
+SELECT measure('before');
+
+CREATE INDEX idx_hits_uri_timestamp ON hits (uri, hit_timestamp) INCLUDE (app_name, ip);
+CREATE INDEX idx_hits_timestamp ON hits USING BRIN (hit_timestamp);
+VACUUM ANALYZE hits;
+
+SELECT measure('after');
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT h.app_name, h.uri, COUNT(h.ip)
+FROM hits h
+WHERE h.hit_timestamp BETWEEN TIMESTAMP '2025-03-01' AND TIMESTAMP '2025-03-31'
+  AND h.uri IN ('/events/1', '/events/2', '/events/3', '/events/4', '/events/5')
+GROUP BY h.app_name, h.uri
+ORDER BY COUNT(h.ip) DESC;
+
+SELECT b.query, :hits AS hits, b.best_ms AS before_ms, a.best_ms AS after_ms, a.index_only
+FROM results b
+JOIN results a ON a.query = b.query AND a.phase = 'after'
+WHERE b.phase = 'before'
+ORDER BY b.query;
@@ -1,18 +1,31 @@
 package ru.practicum.stats.server.controller;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 import ru.practicum.stats.dto.HitDto;
 import ru.practicum.stats.dto.StatsDto;
 import ru.practicum.stats.server.service.StatsService;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequiredArgsConstructor
@@ -20,7 +33,13 @@ import java.util.List;
 public class StatsController {
 
     private final StatsService statsService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
     private static final String DATETIME_FORMAT = "yyyy-MM-dd HH:mm:ss";
+    private static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    @Value("${stats.hits.max-batch-rows:10000}")
+    private int maxBatchRows;
 
     @PostMapping("/hit")
     public ResponseEntity<Void> recordHit(@Valid @RequestBody HitDto hitDto) {
@@ -28,6 +47,22 @@ public class StatsController {
         return ResponseEntity.status(HttpStatus.CREATED).build();
     }
 
+    @PostMapping(value = "/hits", consumes = {MediaType.APPLICATION_JSON_VALUE, APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<Void> recordHits(HttpServletRequest request) throws IOException {
+        List<HitDto> hits = new ArrayList<>();
+        try (MappingIterator<HitDto> iterator = objectMapper.readerFor(HitDto.class).readValues(request.getInputStream())) {
+            while (iterator.hasNextValue()) {
+                if (hits.size() == maxBatchRows) {
+                    throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                            "A batch may contain at most " + maxBatchRows + " hits");
+                }
+                hits.add(iterator.nextValue());
+            }
+        }
+        statsService.saveHits(validate(hits));
+        return ResponseEntity.status(HttpStatus.CREATED).build();
+    }
+
     @GetMapping("/stats")
     public ResponseEntity<List<StatsDto>> getStatistics(
             @RequestParam @DateTimeFormat(pattern = DATETIME_FORMAT) LocalDateTime start,
@@ -37,4 +72,15 @@ public class StatsController {
         List<StatsDto> stats = statsService.getStats(start, end, uris, unique);
         return ResponseEntity.ok(stats);
     }
+
+    private List<HitDto> validate(List<HitDto> hits) {
+        Set<ConstraintViolation<HitDto>> violations = new HashSet<>();
+        for (HitDto hit : hits) {
+            violations.addAll(validator.validate(hit));
+        }
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+        return hits;
+    }
 }
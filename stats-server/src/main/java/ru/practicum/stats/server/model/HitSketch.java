@@ -0,0 +1,19 @@
+package ru.practicum.stats.server.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+import ru.practicum.stats.server.sketch.HyperLogLog;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class HitSketch {
+
+    private String app;
+    private String uri;
+    private LocalDateTime bucketStart;
+    private HyperLogLog sketch;
+}
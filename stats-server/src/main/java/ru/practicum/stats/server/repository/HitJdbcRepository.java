@@ -0,0 +1,28 @@
+package ru.practicum.stats.server.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.stats.dto.HitDto;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class HitJdbcRepository {
+
+    private static final String INSERT_HIT = "INSERT INTO hits (app_name, uri, ip, hit_timestamp) VALUES (?, ?, ?, ?)";
+    private static final int BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void saveAll(List<HitDto> hits) {
+        jdbcTemplate.batchUpdate(INSERT_HIT, hits, BATCH_SIZE, (ps, hit) -> {
+            ps.setString(1, hit.getApp());
+            ps.setString(2, hit.getUri());
+            ps.setString(3, hit.getIp());
+            ps.setTimestamp(4, Timestamp.valueOf(hit.getTimestamp()));
+        });
+    }
+}
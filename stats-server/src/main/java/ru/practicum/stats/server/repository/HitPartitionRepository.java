@@ -0,0 +1,87 @@
+package ru.practicum.stats.server.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Repository
+@RequiredArgsConstructor
+public class HitPartitionRepository {
+
+    private static final String FIND_PARTITIONS = "SELECT c.relname " +
+            "FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid " +
+            "JOIN pg_class p ON p.oid = i.inhparent " +
+            "WHERE p.relname = 'hits'";
+    private static final String LOCK_DEFAULT = "LOCK TABLE hits_default IN ACCESS EXCLUSIVE MODE";
+    private static final String CREATE_TABLE = "CREATE TABLE %s (LIKE hits INCLUDING DEFAULTS)";
+    private static final String MOVE_FROM_DEFAULT = "WITH moved AS (" +
+            "DELETE FROM hits_default WHERE hit_timestamp >= '%2$s' AND hit_timestamp < '%3$s' RETURNING *) " +
+            "INSERT INTO %1$s SELECT * FROM moved";
+    private static final String ATTACH_PARTITION = "ALTER TABLE hits ATTACH PARTITION %s " +
+            "FOR VALUES FROM ('%s') TO ('%s')";
+    private static final String FIND_DEFAULT_MONTHS = "SELECT DISTINCT DATE_TRUNC('month', hit_timestamp) " +
+            "FROM hits_default";
+    private static final String DELETE_DEFAULT_BEFORE = "DELETE FROM hits_default WHERE hit_timestamp < ?";
+    private static final String DROP_PARTITION = "DROP TABLE IF EXISTS %s";
+    private static final Pattern PARTITION_NAME = Pattern.compile("hits_y(\\d{4})m(\\d{2})");
+    private static final DateTimeFormatter BOUND_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<YearMonth> findMonthlyPartitions() {
+        return jdbcTemplate.queryForList(FIND_PARTITIONS, String.class).stream()
+                .map(HitPartitionRepository::toMonth)
+                .flatMap(Optional::stream)
+                .sorted()
+                .toList();
+    }
+
+    @Transactional
+    public int createMonthlyPartition(YearMonth month) {
+        String name = partitionName(month);
+        String from = month.atDay(1).format(BOUND_FORMAT);
+        String to = month.plusMonths(1).atDay(1).format(BOUND_FORMAT);
+        jdbcTemplate.execute(LOCK_DEFAULT);
+        jdbcTemplate.execute(String.format(CREATE_TABLE, name));
+        int moved = jdbcTemplate.update(String.format(MOVE_FROM_DEFAULT, name, from, to));
+        jdbcTemplate.execute(String.format(ATTACH_PARTITION, name, from, to));
+        return moved;
+    }
+
+    public List<YearMonth> findDefaultPartitionMonths() {
+        return jdbcTemplate.queryForList(FIND_DEFAULT_MONTHS, LocalDateTime.class).stream()
+                .map(YearMonth::from)
+                .sorted()
+                .toList();
+    }
+
+    public int deleteDefaultPartitionRowsBefore(LocalDateTime before) {
+        return jdbcTemplate.update(DELETE_DEFAULT_BEFORE, before);
+    }
+
+    public void dropMonthlyPartition(YearMonth month) {
+        jdbcTemplate.execute(String.format(DROP_PARTITION, partitionName(month)));
+    }
+
+    private static String partitionName(YearMonth month) {
+        return String.format("hits_y%04dm%02d", month.getYear(), month.getMonthValue());
+    }
+
+    private static Optional<YearMonth> toMonth(String partitionName) {
+        Matcher matcher = PARTITION_NAME.matcher(partitionName);
+        if (!matcher.matches()) {
+            return Optional.empty();
+        }
+        return Optional.of(YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))));
+    }
+}
@@ -0,0 +1,128 @@
+package ru.practicum.stats.server.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+import ru.practicum.stats.dto.StatsDto;
+import ru.practicum.stats.server.model.RollupGranularity;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+@RequiredArgsConstructor
+public class HitRollupRepository {
+
+    private static final String LOCK_WATERMARK = "SELECT rolled_up_to FROM rollup_watermark WHERE id = 1 FOR UPDATE";
+    private static final String FIND_WATERMARK = "SELECT rolled_up_to FROM rollup_watermark WHERE id = 1";
+    private static final String UPDATE_WATERMARK = "UPDATE rollup_watermark SET rolled_up_to = :rolledUpTo WHERE id = 1";
+    private static final String FIND_EARLIEST_HIT = "SELECT MIN(hit_timestamp) FROM hits WHERE hit_timestamp < :before";
+    private static final String ROLLUP_HITS = "INSERT INTO hit_rollups (granularity, bucket_start, app_name, uri, hits) " +
+            "SELECT 'MINUTE', DATE_TRUNC('minute', hit_timestamp), app_name, uri, COUNT(*) " +
+            "FROM hits " +
+            "WHERE hit_timestamp >= :from AND hit_timestamp < :to " +
+            "GROUP BY DATE_TRUNC('minute', hit_timestamp), app_name, uri";
+    private static final String ROLLUP_BUCKETS = "INSERT INTO hit_rollups (granularity, bucket_start, app_name, uri, hits) " +
+            "SELECT :target, DATE_TRUNC('%1$s', bucket_start), app_name, uri, SUM(hits) " +
+            "FROM hit_rollups " +
+            "WHERE granularity = :source AND bucket_start >= :from AND bucket_start < :to " +
+            "GROUP BY DATE_TRUNC('%1$s', bucket_start), app_name, uri";
+    private static final String DELETE_BUCKETS = "DELETE FROM hit_rollups " +
+            "WHERE granularity = :granularity AND bucket_start >= :from AND bucket_start < :to";
+    private static final String INSERT_LATE_MINUTE = "INSERT INTO rollup_late_minutes (bucket_start) " +
+            "VALUES (:bucketStart)";
+    private static final String FIND_LATE_MINUTES = "SELECT DISTINCT bucket_start FROM rollup_late_minutes " +
+            "WHERE bucket_start < :before ORDER BY bucket_start";
+    private static final String DELETE_LATE_MINUTES = "DELETE FROM rollup_late_minutes " +
+            "WHERE bucket_start IN (:minutes)";
+    private static final String SUM_BUCKETS = "SELECT app_name, uri, SUM(hits) AS hits " +
+            "FROM hit_rollups " +
+            "WHERE granularity = :granularity AND bucket_start >= :from AND bucket_start < :to";
+    private static final String COUNT_HITS = "SELECT app_name, uri, COUNT(*) AS hits " +
+            "FROM hits " +
+            "WHERE hit_timestamp >= :from AND hit_timestamp < :to";
+    private static final String URI_FILTER = " AND uri IN (:uris)";
+    private static final String GROUP_BY_APP_URI = " GROUP BY app_name, uri";
+
+    private static final RowMapper<StatsDto> STATS_ROW_MAPPER = (rs, rowNum) ->
+            new StatsDto(rs.getString("app_name"), rs.getString("uri"), rs.getLong("hits"));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public Optional<LocalDateTime> lockWatermark() {
+        return Optional.ofNullable(jdbcTemplate.getJdbcTemplate().queryForObject(LOCK_WATERMARK, LocalDateTime.class));
+    }
+
+    public Optional<LocalDateTime> findWatermark() {
+        return Optional.ofNullable(jdbcTemplate.getJdbcTemplate().queryForObject(FIND_WATERMARK, LocalDateTime.class));
+    }
+
+    public void saveWatermark(LocalDateTime rolledUpTo) {
+        jdbcTemplate.update(UPDATE_WATERMARK, new MapSqlParameterSource("rolledUpTo", rolledUpTo));
+    }
+
+    public Optional<LocalDateTime> findEarliestHit(LocalDateTime before) {
+        return Optional.ofNullable(jdbcTemplate.queryForObject(FIND_EARLIEST_HIT,
+                new MapSqlParameterSource("before", before), LocalDateTime.class));
+    }
+
+    public int rollupHits(LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.update(ROLLUP_HITS, range(from, to));
+    }
+
+    public int rollupBuckets(RollupGranularity source, RollupGranularity target, LocalDateTime from, LocalDateTime to) {
+        MapSqlParameterSource params = range(from, to)
+                .addValue("source", source.name())
+                .addValue("target", target.name());
+        return jdbcTemplate.update(String.format(ROLLUP_BUCKETS, target.sqlUnit()), params);
+    }
+
+    public int deleteBuckets(RollupGranularity granularity, LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.update(DELETE_BUCKETS, range(from, to).addValue("granularity", granularity.name()));
+    }
+
+    public void saveLateMinutes(Collection<LocalDateTime> minutes) {
+        SqlParameterSource[] batch = minutes.stream()
+                .map(minute -> new MapSqlParameterSource("bucketStart", minute))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(INSERT_LATE_MINUTE, batch);
+    }
+
+    public List<LocalDateTime> findLateMinutes(LocalDateTime before) {
+        return jdbcTemplate.queryForList(FIND_LATE_MINUTES, new MapSqlParameterSource("before", before),
+                LocalDateTime.class);
+    }
+
+    public void deleteLateMinutes(Collection<LocalDateTime> minutes) {
+        jdbcTemplate.update(DELETE_LATE_MINUTES, new MapSqlParameterSource("minutes", minutes));
+    }
+
+    public List<StatsDto> sumBuckets(RollupGranularity granularity, LocalDateTime from, LocalDateTime to,
+                                     Collection<String> uris) {
+        MapSqlParameterSource params = range(from, to).addValue("granularity", granularity.name());
+        return query(SUM_BUCKETS, params, uris);
+    }
+
+    public List<StatsDto> countHits(LocalDateTime from, LocalDateTime to, Collection<String> uris) {
+        return query(COUNT_HITS, range(from, to), uris);
+    }
+
+    private List<StatsDto> query(String sql, MapSqlParameterSource params, Collection<String> uris) {
+        if (uris != null && !uris.isEmpty()) {
+            sql = sql + URI_FILTER;
+            params.addValue("uris", uris);
+        }
+        return jdbcTemplate.query(sql + GROUP_BY_APP_URI, params, STATS_ROW_MAPPER);
+    }
+
+    private static MapSqlParameterSource range(LocalDateTime from, LocalDateTime to) {
+        return new MapSqlParameterSource()
+                .addValue("from", from)
+                .addValue("to", to);
+    }
+}
@@ -0,0 +1,110 @@
+package ru.practicum.stats.server.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+import ru.practicum.stats.server.model.HitSketch;
+import ru.practicum.stats.server.model.RollupGranularity;
+import ru.practicum.stats.server.sketch.HyperLogLog;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+@Repository
+@RequiredArgsConstructor
+public class HitSketchRepository {
+
+    private static final String INSERT_SKETCH = "INSERT INTO hit_sketches (granularity, bucket_start, app_name, uri, sketch) " +
+            "VALUES (:granularity, :bucketStart, :app, :uri, :sketch)";
+    private static final String FIND_MINUTE_VISITORS = "SELECT DISTINCT app_name, uri, " +
+            "DATE_TRUNC('minute', hit_timestamp) AS bucket_start, ip " +
+            "FROM hits " +
+            "WHERE hit_timestamp >= :from AND hit_timestamp < :to";
+    private static final String FIND_VISITORS = "SELECT DISTINCT app_name, uri, ip " +
+            "FROM hits " +
+            "WHERE hit_timestamp >= :from AND hit_timestamp < :to";
+    private static final String FIND_SKETCHES = "SELECT app_name, uri, bucket_start, sketch " +
+            "FROM hit_sketches " +
+            "WHERE granularity = :granularity AND bucket_start >= :from AND bucket_start < :to";
+    private static final String DELETE_SKETCHES = "DELETE FROM hit_sketches " +
+            "WHERE granularity = :granularity AND bucket_start >= :from AND bucket_start < :to";
+    private static final String URI_FILTER = " AND uri IN (:uris)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public Collection<HitSketch> buildMinuteSketches(LocalDateTime from, LocalDateTime to, int precision) {
+        Map<String, HitSketch> sketches = new LinkedHashMap<>();
+        jdbcTemplate.query(FIND_MINUTE_VISITORS, range(from, to), rs -> {
+            LocalDateTime bucketStart = rs.getObject("bucket_start", LocalDateTime.class);
+            String app = rs.getString("app_name");
+            String uri = rs.getString("uri");
+            sketches.computeIfAbsent(app + '\n' + uri + '\n' + bucketStart,
+                            key -> new HitSketch(app, uri, bucketStart, new HyperLogLog(precision)))
+                    .getSketch()
+                    .add(rs.getString("ip"));
+        });
+        return sketches.values();
+    }
+
+    public Collection<HitSketch> buildSketches(LocalDateTime from, LocalDateTime to, Collection<String> uris,
+                                               int precision) {
+        Map<String, HitSketch> sketches = new LinkedHashMap<>();
+        MapSqlParameterSource params = range(from, to);
+        jdbcTemplate.query(withUriFilter(FIND_VISITORS, params, uris), params, rs -> {
+            String app = rs.getString("app_name");
+            String uri = rs.getString("uri");
+            sketches.computeIfAbsent(app + '\n' + uri,
+                            key -> new HitSketch(app, uri, from, new HyperLogLog(precision)))
+                    .getSketch()
+                    .add(rs.getString("ip"));
+        });
+        return sketches.values();
+    }
+
+    public void forEachSketch(RollupGranularity granularity, LocalDateTime from, LocalDateTime to,
+                              Collection<String> uris, Consumer<HitSketch> consumer) {
+        MapSqlParameterSource params = range(from, to).addValue("granularity", granularity.name());
+        jdbcTemplate.query(withUriFilter(FIND_SKETCHES, params, uris), params, rs -> {
+            consumer.accept(new HitSketch(rs.getString("app_name"), rs.getString("uri"),
+                    rs.getObject("bucket_start", LocalDateTime.class), HyperLogLog.fromBytes(rs.getBytes("sketch"))));
+        });
+    }
+
+    public void saveAll(RollupGranularity granularity, Collection<HitSketch> sketches) {
+        if (sketches.isEmpty()) {
+            return;
+        }
+        SqlParameterSource[] batch = sketches.stream()
+                .map(sketch -> new MapSqlParameterSource()
+                        .addValue("granularity", granularity.name())
+                        .addValue("bucketStart", sketch.getBucketStart())
+                        .addValue("app", sketch.getApp())
+                        .addValue("uri", sketch.getUri())
+                        .addValue("sketch", sketch.getSketch().toBytes()))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(INSERT_SKETCH, batch);
+    }
+
+    public int deleteAll(RollupGranularity granularity, LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.update(DELETE_SKETCHES, range(from, to).addValue("granularity", granularity.name()));
+    }
+
+    private static String withUriFilter(String sql, MapSqlParameterSource params, Collection<String> uris) {
+        if (uris == null || uris.isEmpty()) {
+            return sql;
+        }
+        params.addValue("uris", uris);
+        return sql + URI_FILTER;
+    }
+
+    private static MapSqlParameterSource range(LocalDateTime from, LocalDateTime to) {
+        return new MapSqlParameterSource()
+                .addValue("from", from)
+                .addValue("to", to);
+    }
+}
@@ -0,0 +1,88 @@
+package ru.practicum.stats.server.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.stats.server.model.RollupGranularity;
+import ru.practicum.stats.server.repository.HitPartitionRepository;
+import ru.practicum.stats.server.repository.HitRollupRepository;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.Optional;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "stats.partitioning.enabled", havingValue = "true")
+public class HitPartitionManager {
+
+    private final HitPartitionRepository hitPartitionRepository;
+    private final HitRollupRepository hitRollupRepository;
+
+    @Value("${stats.partitioning.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${stats.partitioning.retention-months:0}")
+    private int retentionMonths;
+
+    @Value("${stats.rollup.enabled:true}")
+    private boolean rollupEnabled;
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${stats.partitioning.interval-ms:3600000}")
+    public void maintainPartitions() {
+        YearMonth current = YearMonth.now();
+        YearMonth oldestKept = retentionMonths > 0 && rollupEnabled ? current.minusMonths(retentionMonths) : null;
+        Set<YearMonth> months = new TreeSet<>();
+        for (int i = 0; i <= monthsAhead; i++) {
+            months.add(current.plusMonths(i));
+        }
+        for (YearMonth month : hitPartitionRepository.findDefaultPartitionMonths()) {
+            if (oldestKept == null || !month.isBefore(oldestKept)) {
+                months.add(month);
+            }
+        }
+        months.removeAll(hitPartitionRepository.findMonthlyPartitions());
+        for (YearMonth month : months) {
+            try {
+                int moved = hitPartitionRepository.createMonthlyPartition(month);
+                log.info("Created hits partition for {}, moved {} rows from hits_default", month, moved);
+            } catch (DataAccessException e) {
+                log.error("Could not create hits partition for {}", month, e);
+                throw e;
+            }
+        }
+        if (oldestKept != null) {
+            dropExpiredPartitions(oldestKept);
+        }
+    }
+
+    private void dropExpiredPartitions(YearMonth oldestKept) {
+        Optional<LocalDateTime> rolledUpTo = hitRollupRepository.findWatermark();
+        if (rolledUpTo.isEmpty()) {
+            return;
+        }
+        LocalDateTime horizon = oldestKept.atDay(1).atStartOfDay();
+        if (rolledUpTo.get().isBefore(horizon)) {
+            horizon = RollupGranularity.DAY.floor(rolledUpTo.get());
+        }
+        int deleted = hitPartitionRepository.deleteDefaultPartitionRowsBefore(horizon);
+        if (deleted > 0) {
+            log.info("Deleted {} expired rows before {} from hits_default", deleted, horizon);
+        }
+        for (YearMonth month : hitPartitionRepository.findMonthlyPartitions()) {
+            boolean expired = month.isBefore(oldestKept);
+            boolean rolledUp = !month.plusMonths(1).atDay(1).atStartOfDay().isAfter(rolledUpTo.get());
+            if (expired && rolledUp) {
+                hitPartitionRepository.dropMonthlyPartition(month);
+                log.info("Dropped hits partition for {}", month);
+            }
+        }
+    }
+}
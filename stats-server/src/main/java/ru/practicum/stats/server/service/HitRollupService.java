@@ -0,0 +1,18 @@
+package ru.practicum.stats.server.service;
+
+import ru.practicum.stats.dto.StatsDto;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface HitRollupService {
+
+    void rollup();
+
+    void registerLateHits(Collection<LocalDateTime> timestamps);
+
+    List<StatsDto> getHits(LocalDateTime start, LocalDateTime end, List<String> uris);
+
+    List<StatsDto> getUniqueHits(LocalDateTime start, LocalDateTime end, List<String> uris);
+}
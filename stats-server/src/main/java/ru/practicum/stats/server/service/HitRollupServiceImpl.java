@@ -0,0 +1,236 @@
+package ru.practicum.stats.server.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.stats.dto.StatsDto;
+import ru.practicum.stats.server.model.HitSketch;
+import ru.practicum.stats.server.model.RollupGranularity;
+import ru.practicum.stats.server.repository.HitRollupRepository;
+import ru.practicum.stats.server.repository.HitSketchRepository;
+import ru.practicum.stats.server.sketch.HyperLogLog;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class HitRollupServiceImpl implements HitRollupService {
+
+    private final HitRollupRepository hitRollupRepository;
+    private final HitSketchRepository hitSketchRepository;
+
+    @Value("${stats.rollup.lateness-ms:300000}")
+    private long latenessMs;
+
+    @Value("${stats.rollup.late-margin-ms:60000}")
+    private long lateMarginMs;
+
+    @Value("${stats.partitioning.enabled:false}")
+    private boolean partitioningEnabled;
+
+    @Value("${stats.partitioning.retention-months:0}")
+    private int retentionMonths;
+
+    @Value("${stats.unique.standard-error:0.02}")
+    private double standardError;
+
+    private int precision;
+
+    @PostConstruct
+    void init() {
+        precision = HyperLogLog.precisionFor(standardError);
+        log.info("Unique visitor sketches use precision {} for standard error {}", precision, standardError);
+    }
+
+    @Transactional
+    @Scheduled(initialDelayString = "${stats.rollup.interval-ms:60000}",
+            fixedDelayString = "${stats.rollup.interval-ms:60000}")
+    @Override
+    public void rollup() {
+        LocalDateTime target = RollupGranularity.MINUTE.floor(LocalDateTime.now().minus(latenessMs, ChronoUnit.MILLIS));
+        LocalDateTime watermark = hitRollupRepository.lockWatermark().orElse(null);
+        if (watermark != null) {
+            rebuildLateMinutes(watermark);
+        }
+        LocalDateTime from = watermark != null ? watermark : hitRollupRepository.findEarliestHit(target)
+                .map(RollupGranularity.MINUTE::floor)
+                .orElse(target);
+        if (!from.isBefore(target)) {
+            hitRollupRepository.saveWatermark(from);
+            return;
+        }
+        LocalDateTime hourFrom = RollupGranularity.HOUR.floor(from);
+        LocalDateTime hourTo = RollupGranularity.HOUR.floor(target);
+        LocalDateTime dayFrom = RollupGranularity.DAY.floor(from);
+        LocalDateTime dayTo = RollupGranularity.DAY.floor(target);
+
+        int minutes = hitRollupRepository.rollupHits(from, target);
+        int hours = hitRollupRepository.rollupBuckets(RollupGranularity.MINUTE, RollupGranularity.HOUR,
+                hourFrom, hourTo);
+        int days = hitRollupRepository.rollupBuckets(RollupGranularity.HOUR, RollupGranularity.DAY, dayFrom, dayTo);
+
+        for (LocalDateTime chunk = from; chunk.isBefore(target); chunk = nextDay(chunk, target)) {
+            hitSketchRepository.saveAll(RollupGranularity.MINUTE,
+                    hitSketchRepository.buildMinuteSketches(chunk, nextDay(chunk, target), precision));
+        }
+        for (LocalDateTime chunk = hourFrom; chunk.isBefore(hourTo); chunk = nextDay(chunk, hourTo)) {
+            mergeSketches(RollupGranularity.MINUTE, RollupGranularity.HOUR, chunk, nextDay(chunk, hourTo));
+        }
+        for (LocalDateTime chunk = dayFrom; chunk.isBefore(dayTo); chunk = nextDay(chunk, dayTo)) {
+            mergeSketches(RollupGranularity.HOUR, RollupGranularity.DAY, chunk, nextDay(chunk, dayTo));
+        }
+
+        hitRollupRepository.saveWatermark(target);
+        log.info("Rolled up hits from {} to {}: {} minute, {} hour, {} day buckets", from, target, minutes, hours,
+                days);
+    }
+
+    @Override
+    public void registerLateHits(Collection<LocalDateTime> timestamps) {
+        LocalDateTime threshold = LocalDateTime.now().minus(latenessMs - lateMarginMs, ChronoUnit.MILLIS);
+        LocalDateTime horizon = rawHorizon();
+        Set<LocalDateTime> minutes = new TreeSet<>();
+        for (LocalDateTime timestamp : timestamps) {
+            if (timestamp.isBefore(threshold) && (horizon == null || !timestamp.isBefore(horizon))) {
+                minutes.add(RollupGranularity.MINUTE.floor(timestamp));
+            }
+        }
+        if (!minutes.isEmpty()) {
+            hitRollupRepository.saveLateMinutes(minutes);
+        }
+    }
+
+    @Override
+    public List<StatsDto> getHits(LocalDateTime start, LocalDateTime end, List<String> uris) {
+        Map<String, StatsDto> merged = new LinkedHashMap<>();
+        for (StatsRange range : plan(start, end)) {
+            List<StatsDto> part = range.isRaw()
+                    ? hitRollupRepository.countHits(range.getFrom(), range.getTo(), uris)
+                    : hitRollupRepository.sumBuckets(range.getGranularity(), range.getFrom(), range.getTo(), uris);
+            for (StatsDto stats : part) {
+                merged.merge(stats.getApp() + '\n' + stats.getUri(), stats, (left, right) -> {
+                    left.setHits(left.getHits() + right.getHits());
+                    return left;
+                });
+            }
+        }
+        return sortByHits(merged.values());
+    }
+
+    @Override
+    public List<StatsDto> getUniqueHits(LocalDateTime start, LocalDateTime end, List<String> uris) {
+        Map<String, HitSketch> merged = new LinkedHashMap<>();
+        for (StatsRange range : plan(start, end)) {
+            if (range.isRaw()) {
+                hitSketchRepository.buildSketches(range.getFrom(), range.getTo(), uris, precision)
+                        .forEach(sketch -> mergeInto(merged, sketch.getApp() + '\n' + sketch.getUri(), sketch));
+            } else {
+                hitSketchRepository.forEachSketch(range.getGranularity(), range.getFrom(), range.getTo(), uris,
+                        sketch -> mergeInto(merged, sketch.getApp() + '\n' + sketch.getUri(), sketch));
+            }
+        }
+        return sortByHits(merged.values().stream()
+                .map(sketch -> new StatsDto(sketch.getApp(), sketch.getUri(), sketch.getSketch().estimate()))
+                .toList());
+    }
+
+    private List<StatsRange> plan(LocalDateTime start, LocalDateTime end) {
+        LocalDateTime endExclusive = end.truncatedTo(ChronoUnit.SECONDS).plusSeconds(1);
+        return StatsRangePlanner.plan(start, endExclusive, hitRollupRepository.findWatermark().orElse(null));
+    }
+
+    private void rebuildLateMinutes(LocalDateTime watermark) {
+        List<LocalDateTime> minutes = hitRollupRepository.findLateMinutes(watermark);
+        if (minutes.isEmpty()) {
+            return;
+        }
+        hitRollupRepository.deleteLateMinutes(minutes);
+        LocalDateTime horizon = rawHorizon();
+        Set<LocalDateTime> hours = new TreeSet<>();
+        Set<LocalDateTime> days = new TreeSet<>();
+        for (LocalDateTime minute : minutes) {
+            if (horizon != null && minute.isBefore(horizon)) {
+                continue;
+            }
+            LocalDateTime minuteTo = minute.plusMinutes(1);
+            hitRollupRepository.deleteBuckets(RollupGranularity.MINUTE, minute, minuteTo);
+            hitSketchRepository.deleteAll(RollupGranularity.MINUTE, minute, minuteTo);
+            hitRollupRepository.rollupHits(minute, minuteTo);
+            hitSketchRepository.saveAll(RollupGranularity.MINUTE,
+                    hitSketchRepository.buildMinuteSketches(minute, minuteTo, precision));
+            hours.add(RollupGranularity.HOUR.floor(minute));
+            days.add(RollupGranularity.DAY.floor(minute));
+        }
+        LocalDateTime hourLimit = RollupGranularity.HOUR.floor(watermark);
+        for (LocalDateTime hour : hours) {
+            rebuildBuckets(RollupGranularity.MINUTE, RollupGranularity.HOUR, hour, hour.plusHours(1), hourLimit);
+        }
+        LocalDateTime dayLimit = RollupGranularity.DAY.floor(watermark);
+        for (LocalDateTime day : days) {
+            rebuildBuckets(RollupGranularity.HOUR, RollupGranularity.DAY, day, day.plusDays(1), dayLimit);
+        }
+        log.info("Rebuilt {} minute buckets with hits that arrived below the watermark {}", minutes.size(),
+                watermark);
+    }
+
+    private void rebuildBuckets(RollupGranularity source, RollupGranularity target, LocalDateTime from,
+                                LocalDateTime to, LocalDateTime limit) {
+        if (to.isAfter(limit)) {
+            return;
+        }
+        hitRollupRepository.deleteBuckets(target, from, to);
+        hitSketchRepository.deleteAll(target, from, to);
+        hitRollupRepository.rollupBuckets(source, target, from, to);
+        mergeSketches(source, target, from, to);
+    }
+
+    private void mergeSketches(RollupGranularity source, RollupGranularity target, LocalDateTime from,
+                               LocalDateTime to) {
+        Map<String, HitSketch> merged = new LinkedHashMap<>();
+        hitSketchRepository.forEachSketch(source, from, to, null, sketch -> {
+            sketch.setBucketStart(target.floor(sketch.getBucketStart()));
+            mergeInto(merged, sketch.getApp() + '\n' + sketch.getUri() + '\n' + sketch.getBucketStart(), sketch);
+        });
+        hitSketchRepository.saveAll(target, merged.values());
+    }
+
+    private static void mergeInto(Map<String, HitSketch> sketches, String key, HitSketch sketch) {
+        sketches.merge(key, sketch, (left, right) -> {
+            left.setSketch(left.getSketch().merge(right.getSketch()));
+            return left;
+        });
+    }
+
+    private LocalDateTime rawHorizon() {
+        if (!partitioningEnabled || retentionMonths <= 0) {
+            return null;
+        }
+        return YearMonth.now().minusMonths(retentionMonths).atDay(1).atStartOfDay();
+    }
+
+    private static LocalDateTime nextDay(LocalDateTime time, LocalDateTime limit) {
+        LocalDateTime next = RollupGranularity.DAY.floor(time).plusDays(1);
+        return next.isBefore(limit) ? next : limit;
+    }
+
+    private static List<StatsDto> sortByHits(Collection<StatsDto> stats) {
+        List<StatsDto> result = new ArrayList<>(stats);
+        result.sort(Comparator.comparing(StatsDto::getHits).reversed());
+        return result;
+    }
+}
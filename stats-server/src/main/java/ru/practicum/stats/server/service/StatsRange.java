@@ -0,0 +1,20 @@
+package ru.practicum.stats.server.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.stats.server.model.RollupGranularity;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class StatsRange {
+
+    private final RollupGranularity granularity;
+    private final LocalDateTime from;
+    private final LocalDateTime to;
+
+    public boolean isRaw() {
+        return granularity == null;
+    }
+}
@@ -0,0 +1,57 @@
+package ru.practicum.stats.server.service;
+
+import ru.practicum.stats.server.model.RollupGranularity;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class StatsRangePlanner {
+
+    private static final RollupGranularity[] LEVELS = {null, RollupGranularity.MINUTE, RollupGranularity.HOUR,
+            RollupGranularity.DAY};
+
+    private StatsRangePlanner() {
+    }
+
+    public static List<StatsRange> plan(LocalDateTime start, LocalDateTime end, LocalDateTime rolledUpTo) {
+        List<StatsRange> ranges = new ArrayList<>();
+        if (!start.isBefore(end)) {
+            return ranges;
+        }
+        if (rolledUpTo == null || !start.isBefore(rolledUpTo)) {
+            ranges.add(new StatsRange(null, start, end));
+            return ranges;
+        }
+        LocalDateTime rolledEnd = end.isBefore(rolledUpTo) ? end : rolledUpTo;
+        cover(start, rolledEnd, 0, ranges);
+        if (rolledEnd.isBefore(end)) {
+            ranges.add(new StatsRange(null, rolledEnd, end));
+        }
+        return ranges;
+    }
+
+    private static void cover(LocalDateTime from, LocalDateTime to, int level, List<StatsRange> ranges) {
+        if (!from.isBefore(to)) {
+            return;
+        }
+        if (level == LEVELS.length - 1) {
+            ranges.add(new StatsRange(LEVELS[level], from, to));
+            return;
+        }
+        RollupGranularity coarser = LEVELS[level + 1];
+        LocalDateTime innerFrom = coarser.ceil(from);
+        LocalDateTime innerTo = coarser.floor(to);
+        if (!innerFrom.isBefore(innerTo)) {
+            ranges.add(new StatsRange(LEVELS[level], from, to));
+            return;
+        }
+        if (from.isBefore(innerFrom)) {
+            ranges.add(new StatsRange(LEVELS[level], from, innerFrom));
+        }
+        cover(innerFrom, innerTo, level + 1, ranges);
+        if (innerTo.isBefore(to)) {
+            ranges.add(new StatsRange(LEVELS[level], innerTo, to));
+        }
+    }
+}
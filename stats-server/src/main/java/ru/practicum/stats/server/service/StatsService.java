@@ -11,6 +11,8 @@ public interface StatsService {
 
     void saveHit(HitDto hitDto);
 
+    void saveHits(List<HitDto> hits);
+
     List<StatsDto> getStats(LocalDateTime start, LocalDateTime end, List<String> uris, Boolean unique);
 
 }
@@ -2,11 +2,15 @@ package ru.practicum.stats.server.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.stats.dto.HitDto;
 import ru.practicum.stats.dto.StatsDto;
 import ru.practicum.stats.server.mapper.HitMapper;
 import ru.practicum.stats.server.model.Hit;
+import ru.practicum.stats.server.model.UniqueCountMode;
+import ru.practicum.stats.server.repository.HitJdbcRepository;
 import ru.practicum.stats.server.repository.StatsRepository;
 
 import java.time.LocalDateTime;
@@ -18,15 +22,36 @@ import java.util.List;
 public class StatsServiceImpl implements StatsService {
 
     private final StatsRepository statsRepository;
+    private final HitJdbcRepository hitJdbcRepository;
+    private final HitRollupService hitRollupService;
 
+    @Value("${stats.rollup.enabled:true}")
+    private boolean rollupEnabled;
+
+    @Value("${stats.unique.mode:EXACT}")
+    private UniqueCountMode uniqueCountMode;
+
+    @Transactional
     @Override
     public void saveHit(HitDto hitDto) {
         log.info("Saving hit: {}", hitDto);
         Hit hit = HitMapper.toHit(hitDto);
         statsRepository.save(hit);
+        hitRollupService.registerLateHits(List.of(hit.getTimestamp()));
         log.info("Hit saved successfully: {}", hit);
     }
 
+    @Transactional
+    @Override
+    public void saveHits(List<HitDto> hits) {
+        if (hits.isEmpty()) {
+            return;
+        }
+        hitJdbcRepository.saveAll(hits);
+        hitRollupService.registerLateHits(hits.stream().map(HitDto::getTimestamp).toList());
+        log.info("Saved batch of {} hits", hits.size());
+    }
+
     @Override
     public List<StatsDto> getStats(LocalDateTime start, LocalDateTime end, List<String> uris, Boolean unique) {
         log.info("Getting stats for start={}, end={}, uris={}, unique={}", start, end, uris, unique);
@@ -37,12 +62,16 @@ public class StatsServiceImpl implements StatsService {
         List<StatsDto> result;
         boolean urisProvided = uris != null && !uris.isEmpty();
 
-        if (unique) {
+        if (unique && rollupEnabled && uniqueCountMode == UniqueCountMode.APPROXIMATE) {
+            result = hitRollupService.getUniqueHits(start, end, uris);
+        } else if (unique) {
             if (urisProvided) {
                 result = statsRepository.getStatsUniqueIp(start, end, uris);
             } else {
                 result = statsRepository.getStatsUniqueIpNoUris(start, end);
             }
+        } else if (rollupEnabled) {
+            result = hitRollupService.getHits(start, end, uris);
         } else {
             if (urisProvided) {
                 result = statsRepository.getStatsNonUniqueIp(start, end, uris);
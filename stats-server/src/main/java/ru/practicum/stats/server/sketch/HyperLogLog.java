@@ -0,0 +1,167 @@
+package ru.practicum.stats.server.sketch;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+public class HyperLogLog {
+
+    public static final int MIN_PRECISION = 4;
+    public static final int MAX_PRECISION = 16;
+
+    private static final byte DENSE = 0;
+    private static final byte SPARSE = 1;
+    private static final int SPARSE_ENTRY_BYTES = 3;
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final int precision;
+    private final byte[] registers;
+
+    public HyperLogLog(int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("HyperLogLog precision must be between " + MIN_PRECISION + " and "
+                    + MAX_PRECISION + ", got " + precision);
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    public static int precisionFor(double standardError) {
+        if (standardError <= 0 || standardError >= 1) {
+            throw new IllegalArgumentException("Standard error must be between 0 and 1, got " + standardError);
+        }
+        double registerCount = Math.pow(1.04 / standardError, 2);
+        int precision = (int) Math.ceil(Math.log(registerCount) / Math.log(2));
+        return Math.max(MIN_PRECISION, Math.min(MAX_PRECISION, precision));
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    public void add(String value) {
+        long hash = hash(value);
+        int index = (int) (hash >>> (Long.SIZE - precision));
+        int rank = Math.min(Long.numberOfLeadingZeros(hash << precision), Long.SIZE - precision) + 1;
+        if (registers[index] < rank) {
+            registers[index] = (byte) rank;
+        }
+    }
+
+    public HyperLogLog merge(HyperLogLog other) {
+        if (other.precision < precision) {
+            return foldTo(other.precision).mergeSamePrecision(other);
+        }
+        return mergeSamePrecision(other.precision == precision ? other : other.foldTo(precision));
+    }
+
+    public long estimate() {
+        int registerCount = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = alpha(registerCount) * registerCount * registerCount / sum;
+        if (estimate <= 2.5 * registerCount && zeros > 0) {
+            estimate = registerCount * Math.log((double) registerCount / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    public byte[] toBytes() {
+        int used = 0;
+        for (byte register : registers) {
+            if (register != 0) {
+                used++;
+            }
+        }
+        if (used * SPARSE_ENTRY_BYTES < registers.length) {
+            ByteBuffer buffer = ByteBuffer.allocate(2 + used * SPARSE_ENTRY_BYTES);
+            buffer.put(SPARSE).put((byte) precision);
+            for (int i = 0; i < registers.length; i++) {
+                if (registers[i] != 0) {
+                    buffer.putShort((short) i).put(registers[i]);
+                }
+            }
+            return buffer.array();
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(2 + registers.length);
+        buffer.put(DENSE).put((byte) precision).put(registers);
+        return buffer.array();
+    }
+
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        byte format = buffer.get();
+        HyperLogLog sketch = new HyperLogLog(buffer.get());
+        if (format == DENSE) {
+            buffer.get(sketch.registers);
+        } else if (format == SPARSE) {
+            while (buffer.hasRemaining()) {
+                sketch.registers[Short.toUnsignedInt(buffer.getShort())] = buffer.get();
+            }
+        } else {
+            throw new IllegalArgumentException("Unknown HyperLogLog format: " + format);
+        }
+        return sketch;
+    }
+
+    private HyperLogLog mergeSamePrecision(HyperLogLog other) {
+        for (int i = 0; i < registers.length; i++) {
+            if (registers[i] < other.registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+        return this;
+    }
+
+    private HyperLogLog foldTo(int targetPrecision) {
+        if (targetPrecision == precision) {
+            return this;
+        }
+        HyperLogLog folded = new HyperLogLog(targetPrecision);
+        int droppedBits = precision - targetPrecision;
+        int droppedMask = (1 << droppedBits) - 1;
+        for (int i = 0; i < registers.length; i++) {
+            if (registers[i] == 0) {
+                continue;
+            }
+            int index = i >>> droppedBits;
+            int dropped = i & droppedMask;
+            int rank = dropped != 0
+                    ? Integer.numberOfLeadingZeros(dropped) - (Integer.SIZE - droppedBits) + 1
+                    : droppedBits + registers[i];
+            if (folded.registers[index] < rank) {
+                folded.registers[index] = (byte) rank;
+            }
+        }
+        return folded;
+    }
+
+    private static double alpha(int registerCount) {
+        return switch (registerCount) {
+            case 16 -> 0.673;
+            case 32 -> 0.697;
+            case 64 -> 0.709;
+            default -> 0.7213 / (1 + 1.079 / registerCount);
+        };
+    }
+
+    private static long hash(String value) {
+        long hash = FNV_OFFSET_BASIS;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= FNV_PRIME;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
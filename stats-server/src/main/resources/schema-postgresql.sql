@@ -0,0 +1,30 @@
+DO '
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_class WHERE relname = ''hits'' AND relkind = ''r'') THEN
+        ALTER TABLE hits RENAME TO hits_unpartitioned;
+    END IF;
+END';
+
+CREATE TABLE IF NOT EXISTS hits (
+    id BIGSERIAL NOT NULL,
+    app_name VARCHAR(255) NOT NULL,
+    uri VARCHAR(2048) NOT NULL,
+    ip VARCHAR(45) NOT NULL,
+    hit_timestamp TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    CONSTRAINT pk_hits PRIMARY KEY (id, hit_timestamp)
+) PARTITION BY RANGE (hit_timestamp);
+
+CREATE TABLE IF NOT EXISTS hits_default PARTITION OF hits DEFAULT;
+
+DO '
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_class WHERE relname = ''hits_unpartitioned'' AND relkind = ''r'') THEN
+        INSERT INTO hits (id, app_name, uri, ip, hit_timestamp)
+        SELECT id, app_name, uri, ip, hit_timestamp FROM hits_unpartitioned;
+        PERFORM setval(pg_get_serial_sequence(''hits'', ''id''), COALESCE((SELECT MAX(id) FROM hits), 0) + 1, false);
+        DROP TABLE hits_unpartitioned;
+    END IF;
+END';
+
+CREATE INDEX IF NOT EXISTS idx_hits_uri_timestamp ON hits (uri, hit_timestamp) INCLUDE (app_name, ip);
+CREATE INDEX IF NOT EXISTS idx_hits_timestamp ON hits USING BRIN (hit_timestamp);
@@ -4,4 +4,44 @@ CREATE TABLE IF NOT EXISTS hits (
     uri VARCHAR(2048) NOT NULL,
     ip VARCHAR(45) NOT NULL,
     hit_timestamp TIMESTAMP WITHOUT TIME ZONE NOT NULL
-);
\ No newline at end of file
+);
+
+CREATE TABLE IF NOT EXISTS hit_rollups (
+    granularity VARCHAR(6) NOT NULL,
+    bucket_start TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    app_name VARCHAR(255) NOT NULL,
+    uri VARCHAR(2048) NOT NULL,
+    hits BIGINT NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_hit_rollups_bucket ON hit_rollups (granularity, bucket_start);
+CREATE INDEX IF NOT EXISTS idx_hit_rollups_uri_bucket ON hit_rollups (granularity, uri, bucket_start);
+
+CREATE TABLE IF NOT EXISTS rollup_watermark (
+    id INTEGER NOT NULL PRIMARY KEY,
+    rolled_up_to TIMESTAMP WITHOUT TIME ZONE
+);
+
+INSERT INTO rollup_watermark (id, rolled_up_to)
+SELECT 1, NULL
+WHERE NOT EXISTS (SELECT 1 FROM rollup_watermark WHERE id = 1);
+
+CREATE TABLE IF NOT EXISTS rollup_late_minutes (
+    bucket_start TIMESTAMP WITHOUT TIME ZONE NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_rollup_late_minutes_bucket ON rollup_late_minutes (bucket_start);
+
+CREATE TABLE IF NOT EXISTS hit_sketches (
+    granularity VARCHAR(6) NOT NULL,
+    bucket_start TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    app_name VARCHAR(255) NOT NULL,
+    uri VARCHAR(2048) NOT NULL,
+    sketch BYTEA NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_hit_sketches_bucket ON hit_sketches (granularity, bucket_start);
+CREATE INDEX IF NOT EXISTS idx_hit_sketches_uri_bucket ON hit_sketches (granularity, uri, bucket_start);
+
+CREATE INDEX IF NOT EXISTS idx_hits_uri_timestamp ON hits (uri, hit_timestamp);
+CREATE INDEX IF NOT EXISTS idx_hits_timestamp ON hits (hit_timestamp);